@@ -1,4 +1,9 @@
 import instance.attribute.AbstractAttribute;
+import instance.column.ChunkCache;
+import instance.column.OffHeapArena;
+import instance.discretization.EntropyDiscretizer;
+import instance.discretization.EqualFrequencyDiscretizer;
+import instance.heuristic.AbstractHeuristic;
 import instance.heuristic.SensitivityQualityMeasureHeuristic;
 import instance.heuristic.SpecificityQualityMeasureHeuristic;
 import instance.heuristic.WeightedRelativeAccuracyHeuristic;
@@ -7,9 +12,19 @@ import instance.object.ArffFile;
 import instance.object.Group;
 import instance.object.Instance;
 import instance.search.BeamSearch;
+import instance.search.ExhaustiveSearch;
+import instance.search.SearchContext;
+import instance.search.SearchEngine;
+import instance.search.SearchOptions;
+import instance.search.SearchProgress;
 import reader.ArffReader;
+import reader.ArffSnapshot;
 
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 
 public class Main {
     private static final int DECIMAL_PLACES = 6;
@@ -22,6 +37,45 @@ public class Main {
     private static final boolean checkValue = false;
 
     public static void main(String[] args) {
+        //Flags starting with -- set the search options, all other arguments are positional.
+        SearchOptions options = new SearchOptions();
+        List<String> positional = new ArrayList<>();
+        long outOfCoreBytes = 0;
+        boolean offHeap = false;
+        boolean compareDiscretization = false;
+        for(String arg : args) {
+            if(arg.equals("--boundary-points")) {
+                options.setBoundaryPointsOnly(true);
+            } else if(arg.startsWith("--equal-frequency=")) {
+                options.setDiscretizer(new EqualFrequencyDiscretizer(Integer.valueOf(arg.substring("--equal-frequency=".length()))));
+            } else if(arg.startsWith("--threads=")) {
+                options.setThreads(Integer.valueOf(arg.substring("--threads=".length())));
+            } else if(arg.equals("--exhaustive")) {
+                options.setEngine(SearchEngine.EXHAUSTIVE);
+            } else if(arg.equals("--mdl")) {
+                options.setDiscretizer(new EntropyDiscretizer());
+            } else if(arg.equals("--compare-discretization")) {
+                compareDiscretization = true;
+            } else if(arg.equals("--batched")) {
+                options.setBatchedCounting(true);
+            } else if(arg.startsWith("--out-of-core=")) {
+                outOfCoreBytes = Long.valueOf(arg.substring("--out-of-core=".length())) << 20;
+            } else if(arg.startsWith("--time-budget=")) {
+                options.setTimeBudgetMillis(Long.valueOf(arg.substring("--time-budget=".length())));
+            } else if(arg.startsWith("--candidate-budget=")) {
+                options.setCandidateBudget(Long.valueOf(arg.substring("--candidate-budget=".length())));
+            } else if(arg.startsWith("--sample=")) {
+                options.setSampleSize(Integer.valueOf(arg.substring("--sample=".length())));
+            } else if(arg.startsWith("--sample-confidence=")) {
+                options.setSampleConfidence(Double.valueOf(arg.substring("--sample-confidence=".length())));
+            } else if(arg.equals("--off-heap")) {
+                offHeap = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+        args = positional.toArray(new String[positional.size()]);
+
         if(args.length < 4) {
             System.out.println("Taking default values SEARCH_DEPTH = " + SEARCH_DEPTH + ", SEARCH_WIDTH = " + SEARCH_WIDTH + ", MINIMUM_GROUP_SIZE = " + MINIMUM_GROUP_SIZE + ", MAXIMUM_FRACTION = " + MAXIMUM_FRACTION + ".");
         } else {
@@ -32,42 +86,128 @@ public class Main {
             System.out.println("Taking values SEARCH_DEPTH = " + SEARCH_DEPTH + ", SEARCH_WIDTH = " + SEARCH_WIDTH + ", MINIMUM_GROUP_SIZE = " + MINIMUM_GROUP_SIZE + ", MAXIMUM_FRACTION = " + MAXIMUM_FRACTION + ".");
         }
 
-        try {
-            ArffFile file = ArffReader.getArffFile("/dataset.arff");
-
-            HashSet<String> blacklist = new HashSet<>();
-            blacklist.add("decision_o");
-            blacklist.add("decision");
-
-            System.out.println("= Weighted relative accuracy ===============================================================================");
-            System.out.println("Heuristic: ((p + n) / (P + N)) * (p / (p + n) - P / (P + N))");
-            Group[][] wraResult = BeamSearch.search(file, new WeightedRelativeAccuracyHeuristic(), SEARCH_WIDTH, SEARCH_DEPTH, MINIMUM_GROUP_SIZE, MAXIMUM_FRACTION, checkValue, blacklist);
-            printFullResultArray(wraResult);
-            //printEqualityCheck(wraResult);
-
-            System.out.println("= Sensitivity quality measure ==============================================================================");
-            System.out.println("Heuristic: p / P");
-            Group[][] sensitivityResult = BeamSearch.search(file, new SensitivityQualityMeasureHeuristic(), SEARCH_WIDTH, SEARCH_DEPTH, MINIMUM_GROUP_SIZE, MAXIMUM_FRACTION, checkValue, blacklist);
-            printFullResultArray(sensitivityResult);
-            //printEqualityCheck(sensitivityResult);
-
-            System.out.println("= Specificity quality measure ==============================================================================");
-            System.out.println("Heuristic: 1 - n / N");
-            Group[][] specificityResult = BeamSearch.search(file, new SpecificityQualityMeasureHeuristic(), SEARCH_WIDTH, SEARCH_DEPTH, MINIMUM_GROUP_SIZE, MAXIMUM_FRACTION, checkValue, blacklist);
-            printFullResultArray(specificityResult);
-            //printEqualityCheck(specificityResult);
-
-            System.out.println("= x2 =======================================================================================================");
-            System.out.println("Heuristic: (((p * N - P * n) * (p * N - P * n)) / (P + N)) * ((P + N) * (P + N) / (P * N * (p + n) * (P + N - p - n)))");
-            Group[][] x2Result = BeamSearch.search(file, new X2Heuristic(), SEARCH_WIDTH, SEARCH_DEPTH, MINIMUM_GROUP_SIZE, MAXIMUM_FRACTION, checkValue, blacklist);
-            printFullResultArray(x2Result);
-            //printEqualityCheck(x2Result);
+        //Out of core, the instances are read from the snapshot in chunks, of which at most the given amount of megabytes is held in memory.
+        if(outOfCoreBytes > 0 && args.length <= 4) {
+            System.out.println("Running out of core requires the path of the data set, loading the bundled resource into memory instead.");
+            outOfCoreBytes = 0;
+        }
+        if(offHeap && (args.length <= 4 || outOfCoreBytes > 0)) {
+            System.out.println("Storing the columns outside of the heap requires the path of the data set, and does not apply out of core.");
+            offHeap = false;
+        }
+        if(outOfCoreBytes > 0) {
+            //Every level counts all seeds in a single pass, such that every chunk is read once per level.
+            options.setBatchedCounting(true);
+        }
+
+        try(ChunkCache cache = new ChunkCache(outOfCoreBytes)) {
+            //The memory outside of the heap is released when the search is done, instead of when the program ends.
+            OffHeapArena arena = new OffHeapArena();
+            try(arena) {
+                //Load the dataset from the file system through its snapshot if a path is given, from the bundled resource otherwise.
+                ArffFile file;
+                if(outOfCoreBytes > 0) {
+                    file = ArffSnapshot.open(Paths.get(args[4]), cache);
+                } else if(offHeap) {
+                    file = ArffSnapshot.load(Paths.get(args[4]), arena);
+                } else {
+                    file = args.length > 4 ? ArffSnapshot.load(Paths.get(args[4])) : ArffReader.getArffFile("/dataset.arff");
+                }
+
+                //The context holds the caches and statistics of all searches on the data set, and frees them when done.
+                try(SearchContext context = new SearchContext(file)) {
+                    HashSet<String> blacklist = new HashSet<>();
+                    blacklist.add("decision_o");
+                    blacklist.add("decision");
+
+                    //Search with all heuristics at once, such that every candidate is counted only once.
+                    List<Group[][]> results = search(context, Arrays.asList(new WeightedRelativeAccuracyHeuristic(), new SensitivityQualityMeasureHeuristic(), new SpecificityQualityMeasureHeuristic(), new X2Heuristic()), blacklist, options, compareDiscretization);
+
+                    System.out.println("= Weighted relative accuracy ===============================================================================");
+                    System.out.println("Heuristic: ((p + n) / (P + N)) * (p / (p + n) - P / (P + N))");
+                    Group[][] wraResult = results.get(0);
+                    printFullResultArray(wraResult);
+                    //printEqualityCheck(wraResult);
+
+                    System.out.println("= Sensitivity quality measure ==============================================================================");
+                    System.out.println("Heuristic: p / P");
+                    Group[][] sensitivityResult = results.get(1);
+                    printFullResultArray(sensitivityResult);
+                    //printEqualityCheck(sensitivityResult);
+
+                    System.out.println("= Specificity quality measure ==============================================================================");
+                    System.out.println("Heuristic: 1 - n / N");
+                    Group[][] specificityResult = results.get(2);
+                    printFullResultArray(specificityResult);
+                    //printEqualityCheck(specificityResult);
 
+                    System.out.println("= x2 =======================================================================================================");
+                    System.out.println("Heuristic: (((p * N - P * n) * (p * N - P * n)) / (P + N)) * ((P + N) * (P + N) / (P * N * (p + n) * (P + N - p - n)))");
+                    Group[][] x2Result = results.get(3);
+                    printFullResultArray(x2Result);
+                    //printEqualityCheck(x2Result);
+
+                    System.out.println("[" + BeamSearch.getCurrentTimeStamp() + "]: In total: " + context.getStatistics());
+                    System.out.println("[" + BeamSearch.getCurrentTimeStamp() + "]: Confusion matrix cache: " + context.getConfusionMatrixCache());
+                    if(outOfCoreBytes > 0) {
+                        System.out.println("[" + BeamSearch.getCurrentTimeStamp() + "]: Chunk cache: " + cache);
+                    }
+                }
+            }
+            if(offHeap) {
+                System.out.println("[" + BeamSearch.getCurrentTimeStamp() + "]: Off-heap memory: " + arena);
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Run the beam search with the configured parameters. The search reports how many candidates the discretization of
+     * the numeric attributes removed. Only when asked, the search is also run without discretization, which considers
+     * every threshold, and the change in quality is printed.
+     *
+     * @param context The context of the search.
+     * @param heuristics The heuristic functions to use.
+     * @param blacklist The names of the attributes that are not searched.
+     * @param options The search options.
+     * @param compareDiscretization Whether a discretized search is compared to the search without discretization.
+     * @return The results of the search, per heuristic.
+     */
+    private static List<Group[][]> search(SearchContext context, List<AbstractHeuristic> heuristics, HashSet<String> blacklist, SearchOptions options, boolean compareDiscretization) {
+        List<Group[][]> results = runEngine(context, heuristics, blacklist, options);
+        if(options.getDiscretizer() != null && compareDiscretization) {
+            SearchOptions referenceOptions = new SearchOptions(options);
+            referenceOptions.setDiscretizer(null);
+            List<Group[][]> references = runEngine(context, heuristics, blacklist, referenceOptions);
+            for(int h = 0; h < heuristics.size(); h++) {
+                System.out.println("Quality of " + heuristics.get(h).getClass().getSimpleName() + " compared to the search without discretization:");
+                BeamSearch.printQualityChange(references.get(h), results.get(h));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Run the search engine selected in the options with the configured parameters.
+     *
+     * @param context The context of the search.
+     * @param heuristics The heuristic functions to use.
+     * @param blacklist The names of the attributes that are not searched.
+     * @param options The search options.
+     * @return The results of the search, per heuristic.
+     */
+    private static List<Group[][]> runEngine(SearchContext context, List<AbstractHeuristic> heuristics, HashSet<String> blacklist, SearchOptions options) {
+        if(options.getEngine() == SearchEngine.EXHAUSTIVE) {
+            return ExhaustiveSearch.search(context, heuristics, SEARCH_WIDTH, SEARCH_DEPTH, MINIMUM_GROUP_SIZE, MAXIMUM_FRACTION, checkValue, blacklist, options);
+        }
+        SearchProgress progress = BeamSearch.searchAnytime(context, heuristics, SEARCH_WIDTH, SEARCH_DEPTH, MINIMUM_GROUP_SIZE, MAXIMUM_FRACTION, checkValue, blacklist, options);
+        if(options.isAnytime()) {
+            System.out.println("[" + BeamSearch.getCurrentTimeStamp() + "]: " + progress);
+        }
+        return progress.getResults();
+    }
+
     private static void printFullResultArray(Group[][] wraResult) {
         for(int i = 0; i < wraResult.length; i++) {
             System.out.println();
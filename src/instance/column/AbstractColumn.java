@@ -0,0 +1,215 @@
+package instance.column;
+
+import instance.attribute.AbstractAttribute;
+import instance.extent.Extent;
+import instance.object.EvaluationMetric;
+import instance.object.Type;
+
+/**
+ * Abstract representation of the values of a single attribute, stored in primitive arrays.
+ * Every distinct value is given a code, which is its index in the dictionary of labels. Codes are assigned in order of
+ * first occurrence, and missing values have code -1.
+ */
+public abstract class AbstractColumn {
+    //The value representing a missing value in the arff format.
+    public static final String MISSING = "?";
+
+    //Values representing a column.
+    private final AbstractAttribute attribute;
+    private final String[] labels;
+    private final int size;
+
+    //The extent of the instances with a missing value.
+    private final Extent missingExtent;
+
+    /**
+     * Create a column.
+     *
+     * @param attribute The attribute the column holds the values of.
+     * @param labels The dictionary of distinct values, in order of first occurrence.
+     * @param missing The extent of the instances that have a missing value, of which the size is the amount of
+     *                instances in the column.
+     */
+    public AbstractColumn(AbstractAttribute attribute, String[] labels, Extent missing) {
+        this.attribute = attribute;
+        this.labels = labels;
+        this.size = missing.size();
+        this.missingExtent = missing;
+    }
+
+    /**
+     * Create the column that fits the type of the attribute.
+     *
+     * @param attribute The attribute the column holds the values of.
+     * @param labels The dictionary of distinct values, in order of first occurrence.
+     * @param codes The code of every instance, which is -1 for missing values.
+     * @param labelValues The numeric value of every label, or null if the labels should be parsed when required.
+     * @return The column.
+     */
+    public static AbstractColumn create(AbstractAttribute attribute, String[] labels, int[] codes, double[] labelValues) {
+        //Create the bitmap of missing values.
+        long[] missing = new long[(codes.length + 63) >>> 6];
+        for(int i = 0; i < codes.length; i++) {
+            if(codes[i] == -1) {
+                missing[i >>> 6] |= 1L << i;
+            }
+        }
+        return create(attribute, labels, CodeStore.of(codes), Extent.of(missing, codes.length), labelValues);
+    }
+
+    /**
+     * Create the column that fits the type of the attribute, of which the codes may be stored on disk or outside of
+     * the heap.
+     *
+     * @param attribute The attribute the column holds the values of.
+     * @param labels The dictionary of distinct values, in order of first occurrence.
+     * @param codes The store holding the code of every instance, which is -1 for missing values.
+     * @param missing The extent of the instances that have a missing value.
+     * @param labelValues The numeric value of every label, or null if the labels should be parsed when required.
+     * @return The column.
+     */
+    public static AbstractColumn create(AbstractAttribute attribute, String[] labels, CodeStore codes, Extent missing, double[] labelValues) {
+        if(attribute.getType() == Type.NUMERIC) {
+            if(labelValues == null) {
+                labelValues = new double[labels.length];
+                for(int i = 0; i < labels.length; i++) {
+                    labelValues[i] = Double.parseDouble(labels[i]);
+                }
+            }
+            return new NumericColumn(attribute, labels, labelValues, codes, missing);
+        } else if(attribute.getType() == Type.BOOLEAN) {
+            return new BooleanColumn(attribute, labels, codes, missing);
+        }
+        return new NominalColumn(attribute, labels, codes, missing);
+    }
+
+    /**
+     * Get the attribute this column holds the values of.
+     *
+     * @return The attribute.
+     */
+    public AbstractAttribute getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Get the amount of instances in the column.
+     *
+     * @return The amount of instances.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether the value of the instance is missing.
+     *
+     * @param row The index of the instance.
+     * @return True if the value is missing, false otherwise.
+     */
+    public boolean isMissing(int row) {
+        return missingExtent.contains(row);
+    }
+
+    /**
+     * Get the extent of the instances that have a missing value.
+     *
+     * @return The extent of the instances with a missing value.
+     */
+    public Extent getMissingExtent() {
+        return missingExtent;
+    }
+
+    /**
+     * Get the code of the value of the instance.
+     *
+     * @param row The index of the instance.
+     * @return The code of the value, which is -1 if the value is missing.
+     */
+    public abstract int getCode(int row);
+
+    /**
+     * Get the extent of the instances of which the known value satisfies the given condition.
+     *
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode to use, which is only == for non-numeric columns.
+     * @return The extent of the instances that satisfy the condition, which never contains instances with a missing value.
+     */
+    public Extent getConditionExtent(int code, EvaluationMetric metric) {
+        long[] words = new long[(size + 63) >>> 6];
+        for(int row = 0; row < size; row++) {
+            if(getCode(row) == code) {
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+        return Extent.of(words, size);
+    }
+
+    /**
+     * Count the instances that satisfy every == condition on this column at once, by going over the instances once.
+     *
+     * @param seedRows The instances covered by the seed, or null if there is no seed.
+     * @param positives The extent of the positive instances.
+     * @return The counts of all conditions.
+     */
+    public CodeCounts count(int[] seedRows, Extent positives) {
+        int[] covered = new int[labels.length];
+        int[] coveredPositive = new int[labels.length];
+        int rowCount = seedRows == null ? size : seedRows.length;
+        for(int i = 0; i < rowCount; i++) {
+            int row = seedRows == null ? i : seedRows[i];
+            int code = getCode(row);
+            if(code != -1) {
+                covered[code]++;
+                if(positives.contains(row)) {
+                    coveredPositive[code]++;
+                }
+            }
+        }
+        return new CodeCounts(covered, coveredPositive);
+    }
+
+    /**
+     * Get the amount of distinct values in the column.
+     *
+     * @return The amount of labels in the dictionary.
+     */
+    public int getLabelCount() {
+        return labels.length;
+    }
+
+    /**
+     * Get the label that belongs to the code.
+     *
+     * @param code The code of the value.
+     * @return The value as it occurred in the arff file.
+     */
+    public String getLabel(int code) {
+        return labels[code];
+    }
+
+    /**
+     * Find the code of the given label.
+     *
+     * @param label The label to look for.
+     * @return The code of the label, or -1 if the label does not occur in the column.
+     */
+    public int indexOf(String label) {
+        for(int i = 0; i < labels.length; i++) {
+            if(labels[i].equals(label)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the value of the instance as it occurred in the arff file.
+     *
+     * @param row The index of the instance.
+     * @return The label of the value, or ? if the value is missing.
+     */
+    public String getString(int row) {
+        return isMissing(row) ? MISSING : labels[getCode(row)];
+    }
+}
@@ -0,0 +1,34 @@
+package instance.column;
+
+/**
+ * Store holding the codes of all instances in memory.
+ */
+final class ArrayCodeStore extends CodeStore {
+    //The code of every instance.
+    private final int[] codes;
+
+    /**
+     * Create the store.
+     *
+     * @param codes The code of every instance, which is -1 for missing values.
+     */
+    ArrayCodeStore(int[] codes) {
+        super(codes.length);
+        this.codes = codes;
+    }
+
+    @Override
+    public int get(int row) {
+        return codes[row];
+    }
+
+    @Override
+    public boolean isResident() {
+        return true;
+    }
+
+    @Override
+    CodeStore create(int[] values) {
+        return new ArrayCodeStore(values);
+    }
+}
@@ -0,0 +1,56 @@
+package instance.column;
+
+import instance.attribute.AbstractAttribute;
+import instance.extent.Extent;
+
+/**
+ * Column holding the values of a boolean attribute as a bitmap.
+ */
+public class BooleanColumn extends AbstractColumn {
+    //Bitmaps of the instances that have code 1, and of the instances with a known value, such that the code does not
+    //depend on the representation of the missing value extent.
+    private final long[] bits;
+    private final long[] known;
+
+    /**
+     * Create a boolean column.
+     *
+     * @param attribute The attribute the column holds the values of.
+     * @param labels The dictionary of distinct values, in order of first occurrence, which contains at most two labels.
+     * @param codes The store holding the code of every instance, which is -1 for missing values, which is only read
+     *              when the column is created.
+     * @param missing The extent of the instances that have a missing value.
+     */
+    public BooleanColumn(AbstractAttribute attribute, String[] labels, CodeStore codes, Extent missing) {
+        super(attribute, labels, missing);
+        if(labels.length > 2) {
+            throw new IllegalArgumentException("A boolean attribute cannot have more than two values.");
+        }
+
+        this.bits = new long[(codes.size() + 63) >>> 6];
+        this.known = new long[bits.length];
+        for(int i = 0; i < codes.size(); i++) {
+            int code = codes.get(i);
+            if(code == 1) {
+                bits[i >>> 6] |= 1L << i;
+            }
+            if(code != -1) {
+                known[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Get the code of the value of the instance.
+     *
+     * @param row The index of the instance.
+     * @return The code of the value, which is -1 if the value is missing.
+     */
+    @Override
+    public int getCode(int row) {
+        if((known[row >>> 6] & (1L << row)) == 0) {
+            return -1;
+        }
+        return (int) ((bits[row >>> 6] >>> row) & 1L);
+    }
+}
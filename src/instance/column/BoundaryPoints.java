@@ -0,0 +1,44 @@
+package instance.column;
+
+import instance.object.EvaluationMetric;
+
+/**
+ * The {@code <=} and {@code >=} conditions on a numeric column that lie at a class boundary point of a seed's sweep.
+ */
+public class BoundaryPoints {
+    //The rank of the distinct value of every label, which is -1 for labels that never satisfy a condition.
+    private final int[] labelRanks;
+
+    //Whether the <= and >= condition of every rank lies at a class boundary point.
+    private final boolean[] lteqBoundaryPoints;
+    private final boolean[] gteqBoundaryPoints;
+
+    /**
+     * Create the boundary points found by a sweep.
+     *
+     * @param labelRanks The rank of the distinct value of every label.
+     * @param lteqBoundaryPoints Whether the <= condition of every rank lies at a boundary point.
+     * @param gteqBoundaryPoints Whether the >= condition of every rank lies at a boundary point.
+     */
+    BoundaryPoints(int[] labelRanks, boolean[] lteqBoundaryPoints, boolean[] gteqBoundaryPoints) {
+        this.labelRanks = labelRanks;
+        this.lteqBoundaryPoints = lteqBoundaryPoints;
+        this.gteqBoundaryPoints = gteqBoundaryPoints;
+    }
+
+    /**
+     * Check whether the condition cuts the sorted values of the seed's instances at a class boundary point, or at the
+     * edge of the range of group sizes that is allowed.
+     *
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode, which is <= or >=.
+     * @return True if the condition lies at a boundary point, false otherwise.
+     */
+    public boolean contains(int code, EvaluationMetric metric) {
+        int rank = labelRanks[code];
+        if(rank == -1) {
+            return false;
+        }
+        return metric == EvaluationMetric.LTEQ ? lteqBoundaryPoints[rank] : gteqBoundaryPoints[rank];
+    }
+}
@@ -0,0 +1,203 @@
+package instance.column;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The chunks of the columns that are read from disk, of which those read first are evicted when the memory budget is
+ * used up. Columns on disk are read in chunks of 65536 consecutive instances, so a scan over all instances in
+ * increasing order reads every chunk once. The chunks in the cache are read by the stores without locking, so only
+ * reading a chunk from disk goes through the cache. Closing the cache closes the files of the columns, after which they can no
+ * longer be read.
+ */
+public class ChunkCache implements AutoCloseable {
+    //The amount of instances in a chunk, as a power of two.
+    static final int CHUNK_SHIFT = 16;
+    static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_ROWS - 1;
+
+    //The maximum amount of chunks held in memory.
+    private final int capacity;
+
+    //The stores of the chunks in memory in the order the chunks were read, keyed by the id of the store and the index.
+    private final LinkedHashMap<Long, ChunkedCodeStore> chunks = new LinkedHashMap<>();
+
+    //The files opened through this cache, and the amount of stores created.
+    private final List<Source> sources = new ArrayList<>();
+    private int storeCount;
+
+    //The counters of the cache.
+    private long reads;
+    private long bytesRead;
+    private long evictions;
+
+    /**
+     * Create a cache.
+     *
+     * @param budgetBytes The memory budget of the chunks in bytes, of which at least one chunk is held in memory.
+     */
+    public ChunkCache(long budgetBytes) {
+        this.capacity = (int) Math.max(1, Math.min(Integer.MAX_VALUE, budgetBytes / ((long) CHUNK_ROWS * Integer.BYTES)));
+    }
+
+    /**
+     * Open a file holding the codes of columns.
+     *
+     * @param file The path of the file.
+     * @return The opened file, which is closed with the cache.
+     * @throws IOException Throws an exception if the file cannot be opened.
+     */
+    public synchronized Source open(Path file) throws IOException {
+        Source source = new Source(FileChannel.open(file, StandardOpenOption.READ));
+        sources.add(source);
+        return source;
+    }
+
+    /**
+     * Create a store of which the codes are read from the given file through this cache.
+     *
+     * @param source The file holding the codes as big-endian integers.
+     * @param position The position of the code of the first instance in the file.
+     * @param size The amount of instances.
+     * @return The store.
+     */
+    public synchronized CodeStore createStore(Source source, long position, int size) {
+        return new ChunkedCodeStore(this, storeCount++, source, position, size);
+    }
+
+    /**
+     * Get the codes of a chunk of the store, reading it from disk if it is not in memory.
+     *
+     * @param store The store.
+     * @param index The index of the chunk.
+     * @return The codes of the instances in the chunk.
+     */
+    synchronized int[] get(ChunkedCodeStore store, int index) {
+        //Another thread may have read the chunk while this one was waiting.
+        int[] codes = store.getChunk(index);
+        if(codes == null) {
+            codes = store.read(index);
+            reads++;
+            bytesRead += (long) codes.length * Integer.BYTES;
+            store.setChunk(index, codes);
+
+            //Evict the chunks that were read first, which the stores then no longer hold either.
+            chunks.put((long) store.getId() << 32 | index, store);
+            Iterator<Map.Entry<Long, ChunkedCodeStore>> iterator = chunks.entrySet().iterator();
+            while(chunks.size() > capacity) {
+                Map.Entry<Long, ChunkedCodeStore> entry = iterator.next();
+                entry.getValue().setChunk((int) entry.getKey().longValue(), null);
+                iterator.remove();
+                evictions++;
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Get the maximum amount of chunks held in memory.
+     *
+     * @return The amount of chunks.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the amount of chunks that have been read from disk.
+     *
+     * @return The amount of reads.
+     */
+    public synchronized long getReads() {
+        return reads;
+    }
+
+    /**
+     * Get the amount of bytes that have been read from disk.
+     *
+     * @return The amount of bytes.
+     */
+    public synchronized long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Get the amount of chunks that have been removed to stay within the memory budget.
+     *
+     * @return The amount of evictions.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Close all files opened through this cache, and free the chunks.
+     *
+     * @throws IOException Throws an exception if a file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for(Map.Entry<Long, ChunkedCodeStore> entry : chunks.entrySet()) {
+            entry.getValue().setChunk((int) entry.getKey().longValue(), null);
+        }
+        chunks.clear();
+        for(Source source : sources) {
+            source.channel.close();
+        }
+        sources.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Read " + reads + " chunks (" + String.format("%.2f", bytesRead / (1024.0 * 1024.0)) + " MB) and evicted " + evictions + ", holding at most " + capacity + " chunks.";
+    }
+
+    /**
+     * A file holding the codes of columns.
+     */
+    public static final class Source {
+        private final FileChannel channel;
+
+        /**
+         * Create the source.
+         *
+         * @param channel The channel of the file.
+         */
+        private Source(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Read big-endian integers from the file, which is safe to do from several threads at the same time.
+         *
+         * @param position The position of the first integer in the file.
+         * @param count The amount of integers.
+         * @return The integers.
+         */
+        int[] readInts(long position, int count) {
+            ByteBuffer buffer = ByteBuffer.allocate(count * Integer.BYTES);
+            try {
+                while(buffer.hasRemaining()) {
+                    if(channel.read(buffer, position + buffer.position()) < 0) {
+                        throw new IOException("Unexpected end of file at position " + (position + buffer.position()) + ".");
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.flip();
+            int[] values = new int[count];
+            buffer.asIntBuffer().get(values);
+            return values;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package instance.column;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Store reading the codes from a file in chunks of consecutive instances, of which only the chunks in the cache are
+ * held in memory. The codes are stored as big-endian integers. The chunks of the store that are in the cache are also
+ * referred to by the store itself, such that reading them does not go through the cache, and the cache drops them from
+ * the store when they are evicted, such that the store never holds more chunks in memory than the cache allows.
+ */
+final class ChunkedCodeStore extends CodeStore {
+    //The cache holding the chunks in memory, and the id of this store in the cache.
+    private final ChunkCache cache;
+    private final int id;
+
+    //The file holding the codes, and the position of the code of the first instance.
+    private final ChunkCache.Source source;
+    private final long position;
+
+    //The codes of the chunks that are in the cache, per index, which are null for the chunks on disk.
+    private final AtomicReferenceArray<int[]> chunks;
+
+    /**
+     * Create the store.
+     *
+     * @param cache The cache holding the chunks in memory.
+     * @param id The id of this store in the cache.
+     * @param source The file holding the codes.
+     * @param position The position of the code of the first instance in the file.
+     * @param size The amount of instances.
+     */
+    ChunkedCodeStore(ChunkCache cache, int id, ChunkCache.Source source, long position, int size) {
+        super(size);
+        this.cache = cache;
+        this.id = id;
+        this.source = source;
+        this.position = position;
+        this.chunks = new AtomicReferenceArray<>((size + ChunkCache.CHUNK_ROWS - 1) >>> ChunkCache.CHUNK_SHIFT);
+    }
+
+    @Override
+    public int get(int row) {
+        int index = row >>> ChunkCache.CHUNK_SHIFT;
+        int[] codes = chunks.get(index);
+        if(codes == null) {
+            codes = cache.get(this, index);
+        }
+        return codes[row & ChunkCache.CHUNK_MASK];
+    }
+
+    @Override
+    public boolean isResident() {
+        return false;
+    }
+
+    @Override
+    CodeStore create(int[] values) {
+        return new ArrayCodeStore(values);
+    }
+
+    /**
+     * Get the id of this store in the cache.
+     *
+     * @return The id.
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Get the codes of a chunk if it is in the cache.
+     *
+     * @param index The index of the chunk.
+     * @return The codes of the instances in the chunk, or null if the chunk is not in memory.
+     */
+    int[] getChunk(int index) {
+        return chunks.get(index);
+    }
+
+    /**
+     * Set the codes of a chunk that has been added to or evicted from the cache.
+     *
+     * @param index The index of the chunk.
+     * @param codes The codes of the instances in the chunk, or null if the chunk has been evicted.
+     */
+    void setChunk(int index, int[] codes) {
+        chunks.set(index, codes);
+    }
+
+    /**
+     * Read the codes of a chunk from the file.
+     *
+     * @param index The index of the chunk.
+     * @return The codes of the instances in the chunk.
+     */
+    int[] read(int index) {
+        int from = index << ChunkCache.CHUNK_SHIFT;
+        int length = Math.min(ChunkCache.CHUNK_ROWS, size() - from);
+        return source.readInts(position + (long) from * Integer.BYTES, length);
+    }
+}
@@ -0,0 +1,136 @@
+package instance.column;
+
+import instance.extent.Extent;
+
+/**
+ * The counts of all {@code ==} conditions on a column, combined with a single seed.
+ */
+public class CodeCounts {
+    //The amount of covered instances, and covered positive instances, per code.
+    private final int[] covered;
+    private final int[] coveredPositive;
+
+    /**
+     * Create the counts.
+     *
+     * @param covered The amount of covered instances per code.
+     * @param coveredPositive The amount of covered positive instances per code.
+     */
+    CodeCounts(int[] covered, int[] coveredPositive) {
+        this.covered = covered;
+        this.coveredPositive = coveredPositive;
+    }
+
+    /**
+     * Count the instances that satisfy every == condition on the given columns, combined with every seed, by going over
+     * the instances once. The values of an instance are read once for all seeds, in blocks of consecutive instances.
+     *
+     * @param columns The columns to count the conditions of.
+     * @param seedRows The instances covered by every seed in increasing order, or null for a seed that covers all instances.
+     * @param positives The extent of the positive instances.
+     * @param size The amount of instances in the data set.
+     * @return The counts per seed and column.
+     */
+    public static CodeCounts[][] count(AbstractColumn[] columns, int[][] seedRows, Extent positives, int size) {
+        int[][][] covered = new int[seedRows.length][columns.length][];
+        int[][][] coveredPositive = new int[seedRows.length][columns.length][];
+        for(int j = 0; j < seedRows.length; j++) {
+            for(int i = 0; i < columns.length; i++) {
+                covered[j][i] = new int[columns[i].getLabelCount()];
+                coveredPositive[j][i] = new int[columns[i].getLabelCount()];
+            }
+        }
+
+        //The instances are read in blocks of the size of a chunk, and the values of a block one column at a time, such
+        //that a single chunk has to be in memory at a time when the columns are on disk.
+        int[] starts = new int[seedRows.length];
+        int[] ends = new int[seedRows.length];
+        int[] blockRows = new int[ChunkCache.CHUNK_ROWS];
+        int[] blockCodes = new int[ChunkCache.CHUNK_ROWS];
+        boolean[] blockPositive = new boolean[ChunkCache.CHUNK_ROWS];
+        boolean[] blockCovered = new boolean[ChunkCache.CHUNK_ROWS];
+        for(int start = 0; start < size; start += ChunkCache.CHUNK_ROWS) {
+            int end = Math.min(size, start + ChunkCache.CHUNK_ROWS);
+
+            //Find the instances of every seed in the block, and the instances of the block that any seed covers.
+            int blockCount = 0;
+            for(int j = 0; j < seedRows.length; j++) {
+                if(seedRows[j] == null) {
+                    for(int row = start; row < end; row++) {
+                        if(!blockCovered[row - start]) {
+                            blockCovered[row - start] = true;
+                            blockRows[blockCount++] = row;
+                        }
+                    }
+                    continue;
+                }
+                int index = starts[j];
+                for(; index < seedRows[j].length && seedRows[j][index] < end; index++) {
+                    int row = seedRows[j][index];
+                    if(!blockCovered[row - start]) {
+                        blockCovered[row - start] = true;
+                        blockRows[blockCount++] = row;
+                    }
+                }
+                ends[j] = index;
+            }
+            for(int k = 0; k < blockCount; k++) {
+                blockPositive[blockRows[k] - start] = positives.contains(blockRows[k]);
+            }
+
+            //Read the values of every covered instance once for all seeds.
+            for(int i = 0; i < columns.length; i++) {
+                for(int k = 0; k < blockCount; k++) {
+                    blockCodes[blockRows[k] - start] = columns[i].getCode(blockRows[k]);
+                }
+                for(int j = 0; j < seedRows.length; j++) {
+                    int from = seedRows[j] == null ? start : starts[j];
+                    int to = seedRows[j] == null ? end : ends[j];
+                    for(int index = from; index < to; index++) {
+                        int offset = (seedRows[j] == null ? index : seedRows[j][index]) - start;
+                        int code = blockCodes[offset];
+                        if(code != -1) {
+                            covered[j][i][code]++;
+                            if(blockPositive[offset]) {
+                                coveredPositive[j][i][code]++;
+                            }
+                        }
+                    }
+                }
+            }
+
+            for(int k = 0; k < blockCount; k++) {
+                blockCovered[blockRows[k] - start] = false;
+            }
+            System.arraycopy(ends, 0, starts, 0, ends.length);
+        }
+
+        CodeCounts[][] counts = new CodeCounts[seedRows.length][columns.length];
+        for(int j = 0; j < seedRows.length; j++) {
+            for(int i = 0; i < columns.length; i++) {
+                counts[j][i] = new CodeCounts(covered[j][i], coveredPositive[j][i]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Get the amount of instances covered by the seed and the condition.
+     *
+     * @param code The code of the cutoff value.
+     * @return The amount of covered instances.
+     */
+    public int getCovered(int code) {
+        return covered[code];
+    }
+
+    /**
+     * Get the amount of positive instances covered by the seed and the condition.
+     *
+     * @param code The code of the cutoff value.
+     * @return The amount of covered positive instances.
+     */
+    public int getCoveredPositive(int code) {
+        return coveredPositive[code];
+    }
+}
@@ -0,0 +1,62 @@
+package instance.column;
+
+/**
+ * The dictionary codes of all instances of a column, which are either held in memory or read from disk when needed.
+ */
+public abstract class CodeStore {
+    //The amount of instances in the store.
+    private final int size;
+
+    /**
+     * Create a store.
+     *
+     * @param size The amount of instances in the store.
+     */
+    CodeStore(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Create a store holding the given codes in memory.
+     *
+     * @param codes The code of every instance, which is -1 for missing values.
+     * @return The store.
+     */
+    public static CodeStore of(int[] codes) {
+        return new ArrayCodeStore(codes);
+    }
+
+    /**
+     * Get the amount of instances in the store.
+     *
+     * @return The amount of instances.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the code of the value of the instance. Reading the instances in increasing order is the fastest way to read
+     * all codes, as stores on disk read the codes in chunks of consecutive instances.
+     *
+     * @param row The index of the instance.
+     * @return The code of the value, which is -1 if the value is missing.
+     */
+    public abstract int get(int row);
+
+    /**
+     * Whether all codes are held in memory, such that instances can be read in any order without cost.
+     *
+     * @return True if the codes are in memory, false if they are read from disk.
+     */
+    public abstract boolean isResident();
+
+    /**
+     * Create a store of the same kind as this one holding the given values, such that data derived from the codes is
+     * stored in the same place as the codes. Stores on disk hold the values in memory.
+     *
+     * @param values The values to store.
+     * @return The store.
+     */
+    abstract CodeStore create(int[] values);
+}
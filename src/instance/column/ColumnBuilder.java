@@ -0,0 +1,156 @@
+package instance.column;
+
+import instance.attribute.AbstractAttribute;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Helper that dictionary encodes the values of an attribute while the arff file is being read.
+ * The codes are either collected in memory, or spilled to a stream such that only the dictionary is held in memory.
+ */
+public class ColumnBuilder {
+    //The attribute the values belong to.
+    private final AbstractAttribute attribute;
+
+    //The dictionary of distinct values, in order of first occurrence.
+    private final HashMap<String, Integer> lookup = new HashMap<>();
+    private final List<String> labels = new ArrayList<>();
+
+    //The codes of the values added so far, or the stream they are written to instead.
+    private int[] codes;
+    private final DataOutputStream spill;
+    private int size;
+
+    /**
+     * Create a builder for the given attribute.
+     *
+     * @param attribute The attribute the values belong to.
+     */
+    public ColumnBuilder(AbstractAttribute attribute) {
+        this.attribute = attribute;
+        this.codes = new int[1024];
+        this.spill = null;
+    }
+
+    /**
+     * Create a builder for the given attribute, which writes the codes to the stream as big-endian integers instead of
+     * holding them in memory. The stream is not closed by the builder.
+     *
+     * @param attribute The attribute the values belong to.
+     * @param spill The stream the codes are written to.
+     */
+    public ColumnBuilder(AbstractAttribute attribute, DataOutputStream spill) {
+        this.attribute = attribute;
+        this.codes = null;
+        this.spill = spill;
+    }
+
+    /**
+     * Add the value of the next instance.
+     *
+     * @param value The value as it occurs in the arff file.
+     * @throws UncheckedIOException If the code cannot be written to the spill stream.
+     */
+    public void add(String value) {
+        if(spill != null) {
+            try {
+                spill.writeInt(encode(value));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            size++;
+            return;
+        }
+        ensureCapacity(size + 1);
+        codes[size++] = encode(value);
+    }
+
+    /**
+     * Add all values of the given builder, which holds the values of the next instances.
+     *
+     * @param other The builder to append.
+     */
+    public void addAll(ColumnBuilder other) {
+        if(spill != null || other.spill != null) {
+            throw new IllegalStateException("Builders that spill their codes cannot be combined.");
+        }
+
+        //Translate the codes of the other builder to codes in this builder, keeping the order of first occurrence.
+        int[] translation = new int[other.labels.size()];
+        for(int i = 0; i < translation.length; i++) {
+            translation[i] = encode(other.labels.get(i));
+        }
+
+        ensureCapacity(size + other.size);
+        for(int i = 0; i < other.size; i++) {
+            int code = other.codes[i];
+            codes[size++] = code == -1 ? -1 : translation[code];
+        }
+    }
+
+    /**
+     * Create the column holding all values added so far.
+     *
+     * @return The column.
+     */
+    public AbstractColumn build() {
+        if(spill != null) {
+            throw new IllegalStateException("The codes of " + attribute.getName() + " have been spilled, and are not held in memory.");
+        }
+        return AbstractColumn.create(attribute, labels.toArray(new String[labels.size()]), Arrays.copyOf(codes, size), null);
+    }
+
+    /**
+     * Get the amount of values added so far.
+     *
+     * @return The amount of instances.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the dictionary of the values added so far.
+     *
+     * @return The distinct values, in order of first occurrence.
+     */
+    public String[] getLabels() {
+        return labels.toArray(new String[labels.size()]);
+    }
+
+    /**
+     * Get the code of the value, adding it to the dictionary if it has not been seen before.
+     *
+     * @param value The value as it occurs in the arff file.
+     * @return The code of the value, which is -1 for missing values.
+     */
+    private int encode(String value) {
+        if(value.equals(AbstractColumn.MISSING)) {
+            return -1;
+        }
+        Integer code = lookup.get(value);
+        if(code == null) {
+            code = labels.size();
+            lookup.put(value, code);
+            labels.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Make sure that the codes array can hold the given amount of values.
+     *
+     * @param capacity The required capacity.
+     */
+    private void ensureCapacity(int capacity) {
+        if(capacity > codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(capacity, codes.length + (codes.length >> 1)));
+        }
+    }
+}
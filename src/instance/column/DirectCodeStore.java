@@ -0,0 +1,55 @@
+package instance.column;
+
+import java.nio.IntBuffer;
+
+/**
+ * Store holding the codes of all instances outside of the Java heap, in memory allocated by an arena.
+ */
+final class DirectCodeStore extends CodeStore {
+    //The arena that allocated the codes.
+    private final OffHeapArena arena;
+
+    //The code of every instance, which is null once the arena has released the codes. It is volatile, such that a
+    //release by the thread closing the arena is seen by the threads reading the codes.
+    private volatile IntBuffer codes;
+
+    /**
+     * Create the store.
+     *
+     * @param arena The arena that allocated the codes.
+     * @param codes The code of every instance, which is -1 for missing values.
+     */
+    DirectCodeStore(OffHeapArena arena, IntBuffer codes) {
+        super(codes.limit());
+        this.arena = arena;
+        this.codes = codes;
+    }
+
+    @Override
+    public int get(int row) {
+        IntBuffer codes = this.codes;
+        if(codes == null) {
+            throw new IllegalStateException("The codes have been released by their arena.");
+        }
+        return codes.get(row);
+    }
+
+    @Override
+    public boolean isResident() {
+        return true;
+    }
+
+    @Override
+    CodeStore create(int[] values) {
+        return arena.createStore(values);
+    }
+
+    /**
+     * Stop using the codes, such that their memory can be freed. Reading a code afterwards throws an exception,
+     * rather than reading freed memory. Releasing the codes while a code is being read is undefined, so the arena
+     * should only be closed once no search is reading the column anymore.
+     */
+    void release() {
+        codes = null;
+    }
+}
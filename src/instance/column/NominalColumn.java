@@ -0,0 +1,36 @@
+package instance.column;
+
+import instance.attribute.AbstractAttribute;
+import instance.extent.Extent;
+
+/**
+ * Column holding the values of a set or range attribute as dictionary codes.
+ */
+public class NominalColumn extends AbstractColumn {
+    //The code of every instance.
+    private final CodeStore codes;
+
+    /**
+     * Create a nominal column.
+     *
+     * @param attribute The attribute the column holds the values of.
+     * @param labels The dictionary of distinct values, in order of first occurrence.
+     * @param codes The store holding the code of every instance, which is -1 for missing values.
+     * @param missing The extent of the instances that have a missing value.
+     */
+    public NominalColumn(AbstractAttribute attribute, String[] labels, CodeStore codes, Extent missing) {
+        super(attribute, labels, missing);
+        this.codes = codes;
+    }
+
+    /**
+     * Get the code of the value of the instance.
+     *
+     * @param row The index of the instance.
+     * @return The code of the value, which is -1 if the value is missing.
+     */
+    @Override
+    public int getCode(int row) {
+        return codes.get(row);
+    }
+}
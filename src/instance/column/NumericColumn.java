@@ -0,0 +1,323 @@
+package instance.column;
+
+import instance.attribute.AbstractAttribute;
+import instance.extent.Extent;
+import instance.object.EvaluationMetric;
+
+import java.util.Arrays;
+
+/**
+ * Column holding the values of a numeric attribute as dictionary codes, together with the parsed value of every label.
+ */
+public class NumericColumn extends AbstractColumn {
+    //The code of every instance.
+    private final CodeStore codes;
+
+    //The parsed value of every label.
+    private final double[] labelValues;
+
+    //The rows with a known value sorted by value, which are stored like the codes and are null when the codes are not held
+    //in memory, the rank of the distinct value of every label, which is -1 for NaN, and the index in the sorted rows after
+    //the last row of every rank.
+    private final CodeStore sortedRows;
+    private final int[] labelRanks;
+    private final int[] rankEnds;
+
+    /**
+     * Create a numeric column.
+     *
+     * @param attribute The attribute the column holds the values of.
+     * @param labels The dictionary of distinct values, in order of first occurrence.
+     * @param labelValues The parsed value of every label.
+     * @param codes The store holding the code of every instance, which is -1 for missing values.
+     * @param missing The extent of the instances that have a missing value.
+     */
+    public NumericColumn(AbstractAttribute attribute, String[] labels, double[] labelValues, CodeStore codes, Extent missing) {
+        super(attribute, labels, missing);
+        this.codes = codes;
+        this.labelValues = labelValues;
+
+        //Rank the distinct values of the labels. Labels such as "1" and "1.0" have the same value, and thus the same rank.
+        Integer[] order = new Integer[labelValues.length];
+        for(int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(labelValues[a], labelValues[b]));
+        this.labelRanks = new int[labelValues.length];
+        int rankCount = 0;
+        for(int i = 0; i < order.length; i++) {
+            double value = labelValues[order[i]];
+            if(Double.isNaN(value)) {
+                //NaN never satisfies a comparison, so it is left out of the sorted order.
+                labelRanks[order[i]] = -1;
+            } else {
+                if(rankCount == 0 || value != labelValues[order[i - 1]]) {
+                    rankCount++;
+                }
+                labelRanks[order[i]] = rankCount - 1;
+            }
+        }
+
+        //Sort the rows by counting the rows of every rank.
+        this.rankEnds = new int[rankCount];
+        for(int row = 0; row < codes.size(); row++) {
+            int code = codes.get(row);
+            if(code != -1 && labelRanks[code] != -1) {
+                rankEnds[labelRanks[code]]++;
+            }
+        }
+        for(int rank = 1; rank < rankCount; rank++) {
+            rankEnds[rank] += rankEnds[rank - 1];
+        }
+
+        //The sorted rows take as much memory as the codes, so they are left out when the codes are read from disk.
+        if(!codes.isResident()) {
+            this.sortedRows = null;
+            return;
+        }
+        int[] sorted = new int[rankCount == 0 ? 0 : rankEnds[rankCount - 1]];
+        int[] next = new int[rankCount];
+        for(int rank = 1; rank < rankCount; rank++) {
+            next[rank] = rankEnds[rank - 1];
+        }
+        for(int row = 0; row < codes.size(); row++) {
+            int code = codes.get(row);
+            if(code != -1 && labelRanks[code] != -1) {
+                sorted[next[labelRanks[code]]++] = row;
+            }
+        }
+        this.sortedRows = codes.create(sorted);
+    }
+
+    /**
+     * Get the code of the value of the instance.
+     *
+     * @param row The index of the instance.
+     * @return The code of the value, which is -1 if the value is missing.
+     */
+    @Override
+    public int getCode(int row) {
+        return codes.get(row);
+    }
+
+    /**
+     * Get the parsed value of the instance.
+     *
+     * @param row The index of the instance.
+     * @return The value, which is NaN if the value is missing.
+     */
+    public double getValue(int row) {
+        int code = codes.get(row);
+        return code == -1 ? Double.NaN : labelValues[code];
+    }
+
+    /**
+     * Get the parsed value of the label that belongs to the code.
+     *
+     * @param code The code of the value.
+     * @return The parsed value of the label.
+     */
+    public double getLabelValue(int code) {
+        return labelValues[code];
+    }
+
+    /**
+     * Get the amount of distinct values, which are ranked in ascending order.
+     *
+     * @return The amount of ranks.
+     */
+    public int getRankCount() {
+        return rankEnds.length;
+    }
+
+    /**
+     * Get the rank of the distinct value of the label.
+     *
+     * @param code The code of the label.
+     * @return The rank of the value, which is -1 if the value is NaN.
+     */
+    public int getLabelRank(int code) {
+        return labelRanks[code];
+    }
+
+    /**
+     * Get the amount of instances with a known value, which are the instances in the sorted order.
+     *
+     * @return The amount of sorted rows.
+     */
+    public int getSortedRowCount() {
+        return rankEnds.length == 0 ? 0 : rankEnds[rankEnds.length - 1];
+    }
+
+    /**
+     * Check whether the instances are held in the order sorted by value, which is not the case when the codes are read
+     * from disk.
+     *
+     * @return True if the sorted order is available, false otherwise.
+     */
+    public boolean isSorted() {
+        return sortedRows != null;
+    }
+
+    /**
+     * Get the instance at the given position in the order sorted by value.
+     *
+     * @param index The position in the sorted order.
+     * @return The index of the instance.
+     * @throws IllegalStateException If the sorted order is not available.
+     */
+    public int getSortedRow(int index) {
+        if(sortedRows == null) {
+            throw new IllegalStateException("The rows of " + getAttribute().getName() + " are not sorted, since its codes are not held in memory.");
+        }
+        return sortedRows.get(index);
+    }
+
+    /**
+     * Get the position in the sorted order after the last instance with a value of the given rank.
+     *
+     * @param rank The rank of the value.
+     * @return The amount of instances with a value of at most the rank.
+     */
+    public int getRankEnd(int rank) {
+        return rankEnds[rank];
+    }
+
+    /**
+     * Get the extent of the instances of which the known value satisfies the given condition.
+     *
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode to use.
+     * @return The extent of the instances that satisfy the condition, which never contains instances with a missing value.
+     */
+    @Override
+    public Extent getConditionExtent(int code, EvaluationMetric metric) {
+        if(metric == EvaluationMetric.EQ) {
+            return super.getConditionExtent(code, metric);
+        }
+
+        long[] words = new long[(size() + 63) >>> 6];
+        int rank = labelRanks[code];
+        if(rank != -1 && sortedRows == null) {
+            //Compare the rank of the value of every row with the rank of the cutoff value.
+            for(int row = 0; row < size(); row++) {
+                int rowCode = codes.get(row);
+                int rowRank = rowCode == -1 ? -1 : labelRanks[rowCode];
+                if(rowRank != -1 && (metric == EvaluationMetric.LTEQ ? rowRank <= rank : rowRank >= rank)) {
+                    words[row >>> 6] |= 1L << row;
+                }
+            }
+        } else if(rank != -1) {
+            //The rows that satisfy the condition are a consecutive range of the sorted rows.
+            int from = metric == EvaluationMetric.LTEQ ? 0 : getRankStart(rank);
+            int to = metric == EvaluationMetric.LTEQ ? rankEnds[rank] : getSortedRowCount();
+            for(int i = from; i < to; i++) {
+                int row = sortedRows.get(i);
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+        return Extent.of(words, size());
+    }
+
+    /**
+     * Get the index in the sorted rows of the first row with the given rank.
+     *
+     * @param rank The rank of the value.
+     * @return The index of the first row with a value of the rank.
+     */
+    private int getRankStart(int rank) {
+        return rank == 0 ? 0 : rankEnds[rank - 1];
+    }
+
+    /**
+     * Count the instances that satisfy every {@code <=} and {@code >=} condition on this column at once.
+     * Without a seed the rows are counted in sorted order, otherwise only the seed's rows are counted per rank.
+     *
+     * @param seedRows The instances covered by the seed, or null if there is no seed.
+     * @param seedUnknown The instances for which the seed is unknown, or null if there is no seed.
+     * @param positives The extent of the positive instances.
+     * @return The counts of all conditions.
+     */
+    public ThresholdSweep sweep(int[] seedRows, Extent seedUnknown, Extent positives) {
+        if(seedRows == null && sortedRows == null) {
+            //Without the sorted order, the rows are counted per code in a single pass.
+            return sweep(count(null, positives), null, positives);
+        }
+
+        int rankCount = rankEnds.length;
+        int[] covered = new int[rankCount];
+        int[] coveredPositive = new int[rankCount];
+
+        if(seedRows == null) {
+            //The amount of rows of every rank follows from the sorted rows directly.
+            int index = 0;
+            for(int rank = 0; rank < rankCount; rank++) {
+                covered[rank] = rankEnds[rank] - index;
+                for(; index < rankEnds[rank]; index++) {
+                    if(positives.contains(sortedRows.get(index))) {
+                        coveredPositive[rank]++;
+                    }
+                }
+            }
+        } else {
+            //Count the rows of the seed per rank, which does not depend on the size of the data set.
+            for(int row : seedRows) {
+                int code = codes.get(row);
+                int rank = code == -1 ? -1 : labelRanks[code];
+                if(rank != -1) {
+                    covered[rank]++;
+                    if(positives.contains(row)) {
+                        coveredPositive[rank]++;
+                    }
+                }
+            }
+        }
+
+        return accumulate(covered, coveredPositive, seedUnknown, positives);
+    }
+
+    /**
+     * Count the instances that satisfy every {@code <=} and {@code >=} condition on this column at once, from the
+     * counts of the {@code ==} conditions that have been counted already.
+     *
+     * @param counts The counts of the == conditions on this column, combined with the seed.
+     * @param seedUnknown The instances for which the seed is unknown, or null if there is no seed.
+     * @param positives The extent of the positive instances.
+     * @return The counts of all conditions.
+     */
+    public ThresholdSweep sweep(CodeCounts counts, Extent seedUnknown, Extent positives) {
+        int[] covered = new int[rankEnds.length];
+        int[] coveredPositive = new int[rankEnds.length];
+        for(int code = 0; code < labelRanks.length; code++) {
+            int rank = labelRanks[code];
+            if(rank != -1) {
+                covered[rank] += counts.getCovered(code);
+                coveredPositive[rank] += counts.getCoveredPositive(code);
+            }
+        }
+        return accumulate(covered, coveredPositive, seedUnknown, positives);
+    }
+
+    /**
+     * Create the sweep from the amount of instances with a value of every rank.
+     *
+     * @param covered The amount of covered instances per rank, which is accumulated in place.
+     * @param coveredPositive The amount of covered positive instances per rank, which is accumulated in place.
+     * @param seedUnknown The instances for which the seed is unknown, or null if there is no seed.
+     * @param positives The extent of the positive instances.
+     * @return The counts of all conditions.
+     */
+    private ThresholdSweep accumulate(int[] covered, int[] coveredPositive, Extent seedUnknown, Extent positives) {
+        //Accumulate the counts of the rows with a value up to and including every rank.
+        for(int rank = 1; rank < covered.length; rank++) {
+            covered[rank] += covered[rank - 1];
+            coveredPositive[rank] += coveredPositive[rank - 1];
+        }
+
+        //The unknown instances are the same for all conditions on this column.
+        Extent missing = getMissingExtent();
+        int unknown = seedUnknown == null ? missing.cardinality() : missing.orCardinality(seedUnknown);
+        int unknownPositive = seedUnknown == null ? missing.andCardinality(positives) : missing.orAndCardinality(seedUnknown, positives);
+        return new ThresholdSweep(labelRanks, covered, coveredPositive, unknown, unknownPositive);
+    }
+}
@@ -0,0 +1,177 @@
+package instance.column;
+
+import instance.extent.BitmapExtent;
+import instance.extent.DirectBitmapExtent;
+import instance.extent.Extent;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owner of the memory outside of the Java heap that holds the codes and missing value bitmaps of columns, such that
+ * large data sets do not put pressure on the garbage collector. Closing the arena frees all of its memory at once,
+ * after which the columns created from it can no longer be used. The arena should only be closed once no search is
+ * reading the columns anymore.
+ */
+public class OffHeapArena implements AutoCloseable {
+    //The method that frees the memory of a direct buffer right away, which is null if it is not available.
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            //Without the cleaner, the memory is freed once the buffers have been garbage collected.
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    //The buffers allocated by this arena, and the stores and extents that use them.
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+    private final List<DirectCodeStore> stores = new ArrayList<>();
+    private final List<DirectBitmapExtent> extents = new ArrayList<>();
+
+    //The amount of bytes currently allocated, and the amount of bytes freed by closing the arena.
+    private long allocatedBytes;
+    private long releasedBytes;
+
+    /**
+     * Create a store holding a copy of the given codes outside of the heap.
+     *
+     * @param codes The code of every instance, which is -1 for missing values.
+     * @return The store.
+     */
+    public synchronized CodeStore createStore(int[] codes) {
+        IntBuffer buffer = allocate((long) codes.length * Integer.BYTES).asIntBuffer();
+        buffer.put(codes).flip();
+        return register(new DirectCodeStore(this, buffer));
+    }
+
+    /**
+     * Create a store holding a copy of the remaining codes in the buffer outside of the heap, which does not need a
+     * copy of the codes on the heap, such that a memory mapped file can be copied directly.
+     *
+     * @param codes The code of every instance, which is -1 for missing values. The position of the buffer is not changed.
+     * @return The store.
+     */
+    public synchronized CodeStore createStore(IntBuffer codes) {
+        IntBuffer buffer = allocate((long) codes.remaining() * Integer.BYTES).asIntBuffer();
+        buffer.put(codes.duplicate()).flip();
+        return register(new DirectCodeStore(this, buffer));
+    }
+
+    /**
+     * Create an extent from the given bitmap, which is stored outside of the heap if it is dense. Sparse bitmaps are
+     * compressed on the heap instead, where they take less memory than the plain bitmap would outside of it.
+     *
+     * @param words The words of the bitmap, in which bit i is set if instance i is covered.
+     * @param size The amount of instances in the data set.
+     * @return The extent.
+     */
+    public synchronized Extent createExtent(long[] words, int size) {
+        Extent extent = Extent.of(words, size);
+        if(!(extent instanceof BitmapExtent)) {
+            return extent;
+        }
+        LongBuffer buffer = allocate((long) words.length * Long.BYTES).asLongBuffer();
+        buffer.put(words).flip();
+        DirectBitmapExtent direct = new DirectBitmapExtent(buffer, size);
+        extents.add(direct);
+        return direct;
+    }
+
+    /**
+     * Get the amount of memory currently allocated by this arena.
+     *
+     * @return The size in bytes.
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Release all memory of this arena. The columns created from it can no longer be read afterwards, and the arena
+     * can still be used to allocate new memory.
+     */
+    @Override
+    public synchronized void close() {
+        //Make sure that nothing refers to the buffers anymore before they are freed.
+        for(DirectCodeStore store : stores) {
+            store.release();
+        }
+        for(DirectBitmapExtent extent : extents) {
+            extent.release();
+        }
+        for(ByteBuffer buffer : buffers) {
+            free(buffer);
+        }
+        stores.clear();
+        extents.clear();
+        buffers.clear();
+        releasedBytes += allocatedBytes;
+        allocatedBytes = 0;
+    }
+
+    /**
+     * Allocate a buffer outside of the heap in the native byte order.
+     *
+     * @param bytes The size of the buffer in bytes.
+     * @return The buffer.
+     */
+    private ByteBuffer allocate(long bytes) {
+        if(bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot allocate " + bytes + " bytes in a single buffer.");
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        buffers.add(buffer);
+        allocatedBytes += bytes;
+        return buffer;
+    }
+
+    /**
+     * Remember the store, such that it is released when the arena is closed.
+     *
+     * @param store The store.
+     * @return The store.
+     */
+    private DirectCodeStore register(DirectCodeStore store) {
+        stores.add(store);
+        return store;
+    }
+
+    /**
+     * Free the memory of the buffer right away, if the runtime allows it.
+     *
+     * @param buffer The buffer, which may not be used afterwards.
+     */
+    private static void free(ByteBuffer buffer) {
+        if(INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            //The memory is freed once the buffer has been garbage collected instead.
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Holding " + String.format("%.2f", allocatedBytes / (1024.0 * 1024.0)) + " MB in " + buffers.size() + " buffers outside of the heap, released "
+                + String.format("%.2f", releasedBytes / (1024.0 * 1024.0)) + " MB" + (INVOKE_CLEANER == null ? " through the garbage collector." : ".");
+    }
+}
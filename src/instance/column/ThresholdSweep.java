@@ -0,0 +1,197 @@
+package instance.column;
+
+import instance.object.EvaluationMetric;
+
+/**
+ * The counts of all {@code <=} and {@code >=} conditions on a numeric column, combined with a single seed.
+ * The counts are cumulative over the distinct values in sorted order, such that every condition is a lookup.
+ */
+public class ThresholdSweep {
+    //The rank of the distinct value of every label, which is -1 for labels that never satisfy a condition.
+    private final int[] labelRanks;
+
+    //The amount of covered instances, and covered positive instances, with a value up to and including every rank.
+    private final int[] covered;
+    private final int[] coveredPositive;
+
+    //The amount of instances for which the condition or the seed is unknown, and how many of those are positive.
+    private final int unknown;
+    private final int unknownPositive;
+
+    /**
+     * Create the counts of a sweep.
+     *
+     * @param labelRanks The rank of the distinct value of every label.
+     * @param covered The cumulative amount of covered instances per rank.
+     * @param coveredPositive The cumulative amount of covered positive instances per rank.
+     * @param unknown The amount of unknown instances.
+     * @param unknownPositive The amount of unknown positive instances.
+     */
+    ThresholdSweep(int[] labelRanks, int[] covered, int[] coveredPositive, int unknown, int unknownPositive) {
+        this.labelRanks = labelRanks;
+        this.covered = covered;
+        this.coveredPositive = coveredPositive;
+        this.unknown = unknown;
+        this.unknownPositive = unknownPositive;
+    }
+
+    /**
+     * Get the amount of instances covered by the seed and the condition.
+     *
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode, which is <= or >=.
+     * @return The amount of covered instances.
+     */
+    public int getCovered(int code, EvaluationMetric metric) {
+        return count(covered, code, metric);
+    }
+
+    /**
+     * Get the amount of positive instances covered by the seed and the condition.
+     *
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode, which is <= or >=.
+     * @return The amount of covered positive instances.
+     */
+    public int getCoveredPositive(int code, EvaluationMetric metric) {
+        return count(coveredPositive, code, metric);
+    }
+
+    /**
+     * Get the amount of instances for which the condition or the seed is unknown.
+     *
+     * @return The amount of unknown instances.
+     */
+    public int getUnknown() {
+        return unknown;
+    }
+
+    /**
+     * Get the amount of positive instances for which the condition or the seed is unknown.
+     *
+     * @return The amount of unknown positive instances.
+     */
+    public int getUnknownPositive() {
+        return unknownPositive;
+    }
+
+    /**
+     * Look up the count of a condition in the cumulative counts.
+     *
+     * @param cumulative The cumulative counts per rank.
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode, which is <= or >=.
+     * @return The count of the instances that satisfy the condition.
+     */
+    private int count(int[] cumulative, int code, EvaluationMetric metric) {
+        int rank = labelRanks[code];
+        return rank == -1 ? 0 : countRank(cumulative, rank, metric);
+    }
+
+    /**
+     * Look up the count of the condition on the value of a rank in the cumulative counts.
+     *
+     * @param cumulative The cumulative counts per rank.
+     * @param rank The rank of the cutoff value.
+     * @param metric The comparison mode, which is <= or >=.
+     * @return The count of the instances that satisfy the condition.
+     */
+    private static int countRank(int[] cumulative, int rank, EvaluationMetric metric) {
+        if(metric == EvaluationMetric.LTEQ) {
+            return cumulative[rank];
+        }
+        int total = cumulative[cumulative.length - 1];
+        return rank == 0 ? total : total - cumulative[rank - 1];
+    }
+
+    /**
+     * Find the boundary points between all adjacent values that occur in the seed's extent.
+     * A cut point between two adjacent values is a boundary point, unless the instances of both values all belong to
+     * the same class. The conditions that cover all of the seed's known values are included, and so are the first and
+     * last conditions that satisfy the size limits, as those limits cut the sorted values as well. Conditions that
+     * cover the same instances as a condition on an adjacent value are never included.
+     *
+     * @param lteqOffset The amount of instances counted as covered by every <= condition next to the known values.
+     * @param minimumCovered The minimum amount of covered instances of a group.
+     * @param maximumCovered The amount of covered instances a group should stay below.
+     * @return The boundary points of the <= and >= conditions.
+     */
+    public BoundaryPoints findBoundaryPoints(int lteqOffset, int minimumCovered, double maximumCovered) {
+        boolean[] lteqBoundaryPoints = new boolean[covered.length];
+        boolean[] gteqBoundaryPoints = new boolean[covered.length];
+        int previous = -1;
+        int lteqFirst = -1, lteqLast = -1, gteqFirst = -1, gteqLast = -1;
+        for(int rank = 0; rank < covered.length; rank++) {
+            //Values that do not occur in the seed's extent do not change the counts.
+            if(getRankCount(covered, rank) == 0) {
+                continue;
+            }
+            if(previous == -1) {
+                gteqBoundaryPoints[rank] = true;
+            } else if(!isSameClass(previous, rank)) {
+                lteqBoundaryPoints[previous] = true;
+                gteqBoundaryPoints[rank] = true;
+            }
+            previous = rank;
+
+            //Find the range of ranks of which the conditions satisfy the size limits.
+            int lteqCovered = countRank(covered, rank, EvaluationMetric.LTEQ) + lteqOffset;
+            if(lteqCovered >= minimumCovered && lteqCovered < maximumCovered) {
+                lteqFirst = lteqFirst == -1 ? rank : lteqFirst;
+                lteqLast = rank;
+            }
+            int gteqCovered = countRank(covered, rank, EvaluationMetric.GTEQ);
+            if(gteqCovered >= minimumCovered && gteqCovered < maximumCovered) {
+                gteqFirst = gteqFirst == -1 ? rank : gteqFirst;
+                gteqLast = rank;
+            }
+        }
+        if(previous != -1) {
+            lteqBoundaryPoints[previous] = true;
+        }
+        markBoundaryPoints(lteqBoundaryPoints, lteqFirst, lteqLast);
+        markBoundaryPoints(gteqBoundaryPoints, gteqFirst, gteqLast);
+        return new BoundaryPoints(labelRanks, lteqBoundaryPoints, gteqBoundaryPoints);
+    }
+
+    /**
+     * Mark the edges of a range of ranks as boundary points.
+     *
+     * @param boundaryPoints The boundary points of a metric.
+     * @param first The first rank of the range, or -1 if the range is empty.
+     * @param last The last rank of the range, or -1 if the range is empty.
+     */
+    private static void markBoundaryPoints(boolean[] boundaryPoints, int first, int last) {
+        if(first != -1) {
+            boundaryPoints[first] = true;
+            boundaryPoints[last] = true;
+        }
+    }
+
+    /**
+     * Check whether the instances of both ranks all belong to the same class.
+     *
+     * @param first The first rank.
+     * @param second The second rank.
+     * @return True if all instances of both ranks are positive, or all are negative.
+     */
+    private boolean isSameClass(int first, int second) {
+        int firstPositive = getRankCount(coveredPositive, first);
+        int secondPositive = getRankCount(coveredPositive, second);
+        if(firstPositive == 0 && secondPositive == 0) {
+            return true;
+        }
+        return firstPositive == getRankCount(covered, first) && secondPositive == getRankCount(covered, second);
+    }
+
+    /**
+     * Get the count of a single rank from the cumulative counts.
+     *
+     * @param cumulative The cumulative counts per rank.
+     * @param rank The rank.
+     * @return The count of the instances with a value of the rank.
+     */
+    private static int getRankCount(int[] cumulative, int rank) {
+        return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+    }
+}
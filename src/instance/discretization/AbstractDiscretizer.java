@@ -0,0 +1,19 @@
+package instance.discretization;
+
+import instance.column.NumericColumn;
+import instance.extent.Extent;
+
+/**
+ * Abstract version of a discretization method, which limits the thresholds of a numeric column to a few cut points.
+ */
+public abstract class AbstractDiscretizer {
+
+    /**
+     * Find the cut points of the column.
+     *
+     * @param column The numeric column to discretize.
+     * @param positives The extent of the positive instances.
+     * @return The cut points of the column.
+     */
+    public abstract CutPoints discretize(NumericColumn column, Extent positives);
+}
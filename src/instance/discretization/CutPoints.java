@@ -0,0 +1,56 @@
+package instance.discretization;
+
+import instance.column.NumericColumn;
+import instance.object.EvaluationMetric;
+
+/**
+ * The cut points of a discretized numeric column, which are the only thresholds the search has to consider.
+ * A cut point after a rank allows the condition {@code <=} on the value of that rank, and {@code >=} on the value of
+ * the next rank.
+ */
+public class CutPoints {
+    //The column the cut points belong to, and whether there is a cut point after every rank.
+    private final NumericColumn column;
+    private final boolean[] cuts;
+
+    /**
+     * Create cut points for the given column.
+     *
+     * @param column The column the cut points belong to.
+     * @param cuts Whether there is a cut point after every rank.
+     */
+    public CutPoints(NumericColumn column, boolean[] cuts) {
+        this.column = column;
+        this.cuts = cuts;
+    }
+
+    /**
+     * Check whether the condition lies at one of the cut points.
+     *
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode, which is <= or >=.
+     * @return True if the condition should be considered, false otherwise.
+     */
+    public boolean allows(int code, EvaluationMetric metric) {
+        int rank = column.getLabelRank(code);
+        if(rank == -1) {
+            return false;
+        }
+        return metric == EvaluationMetric.LTEQ ? cuts[rank] : rank > 0 && cuts[rank - 1];
+    }
+
+    /**
+     * Get the amount of cut points.
+     *
+     * @return The amount of cut points.
+     */
+    public int size() {
+        int count = 0;
+        for(boolean cut : cuts) {
+            if(cut) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,138 @@
+package instance.discretization;
+
+import instance.column.CodeCounts;
+import instance.column.NumericColumn;
+import instance.extent.Extent;
+
+/**
+ * Supervised discretization that recursively splits on the cut point with the lowest class entropy, and stops when the
+ * split is not accepted by the minimum description length principle, as described in:
+ *
+ * U.M. Fayyad, K.B. Irani
+ * Multi-Interval Discretization of Continuous-Valued Attributes for Classification Learning, IJCAI 1993.
+ */
+public class EntropyDiscretizer extends AbstractDiscretizer {
+    /**
+     * Find the cut points of the column.
+     *
+     * @param column The numeric column to discretize.
+     * @param positives The extent of the positive instances.
+     * @return The cut points of the column.
+     */
+    @Override
+    public CutPoints discretize(NumericColumn column, Extent positives) {
+        //Count the classes per rank in a single pass, which does not need the rows in sorted order.
+        int rankCount = column.getRankCount();
+        int[] covered = new int[rankCount + 1];
+        int[] coveredPositive = new int[rankCount + 1];
+        CodeCounts counts = column.count(null, positives);
+        for(int code = 0; code < column.getLabelCount(); code++) {
+            int rank = column.getLabelRank(code);
+            if(rank != -1) {
+                coveredPositive[rank + 1] += counts.getCoveredPositive(code);
+            }
+        }
+
+        //Accumulate the class counts in sorted order, such that the counts of any range of ranks are a subtraction.
+        for(int rank = 0; rank < rankCount; rank++) {
+            covered[rank + 1] = column.getRankEnd(rank);
+            coveredPositive[rank + 1] += coveredPositive[rank];
+        }
+
+        boolean[] cuts = new boolean[rankCount];
+        split(covered, coveredPositive, 0, rankCount, cuts);
+        return new CutPoints(column, cuts);
+    }
+
+    /**
+     * Split the range of ranks on the cut point with the lowest entropy, if the split is accepted, and recurse.
+     *
+     * @param covered The cumulative amount of instances, in which entry i counts the ranks before rank i.
+     * @param coveredPositive The cumulative amount of positive instances.
+     * @param from The first rank of the range.
+     * @param to The rank after the last rank of the range.
+     * @param cuts Whether there is a cut point after every rank.
+     */
+    private static void split(int[] covered, int[] coveredPositive, int from, int to, boolean[] cuts) {
+        int total = covered[to] - covered[from];
+        int positive = coveredPositive[to] - coveredPositive[from];
+
+        //Find the cut point with the lowest weighted entropy of both halves.
+        int best = -1;
+        double bestEntropy = Double.POSITIVE_INFINITY;
+        for(int cut = from + 1; cut < to; cut++) {
+            int left = covered[cut] - covered[from];
+            int leftPositive = coveredPositive[cut] - coveredPositive[from];
+            double entropy = (left * entropy(leftPositive, left) + (total - left) * entropy(positive - leftPositive, total - left)) / total;
+            if(entropy < bestEntropy) {
+                bestEntropy = entropy;
+                best = cut;
+            }
+        }
+        if(best == -1) {
+            return;
+        }
+
+        //Accept the split if the information gain pays for the cost of describing it.
+        int left = covered[best] - covered[from];
+        int leftPositive = coveredPositive[best] - coveredPositive[from];
+        double entropy = entropy(positive, total);
+        double leftEntropy = entropy(leftPositive, left);
+        double rightEntropy = entropy(positive - leftPositive, total - left);
+        double delta = log2(Math.pow(3, classes(positive, total)) - 2) - (classes(positive, total) * entropy
+                - classes(leftPositive, left) * leftEntropy - classes(positive - leftPositive, total - left) * rightEntropy);
+        if(entropy - bestEntropy <= (log2(total - 1) + delta) / total) {
+            return;
+        }
+
+        cuts[best - 1] = true;
+        split(covered, coveredPositive, from, best, cuts);
+        split(covered, coveredPositive, best, to, cuts);
+    }
+
+    /**
+     * Calculate the class entropy of a set of instances.
+     *
+     * @param positive The amount of positive instances.
+     * @param total The amount of instances.
+     * @return The entropy in bits.
+     */
+    private static double entropy(int positive, int total) {
+        if(positive == 0 || positive == total) {
+            return 0;
+        }
+        double fraction = (double) positive / total;
+        return -fraction * log2(fraction) - (1 - fraction) * log2(1 - fraction);
+    }
+
+    /**
+     * Get the amount of classes that occur in a set of instances.
+     *
+     * @param positive The amount of positive instances.
+     * @param total The amount of instances.
+     * @return The amount of classes, which is 1 or 2.
+     */
+    private static int classes(int positive, int total) {
+        return positive == 0 || positive == total ? 1 : 2;
+    }
+
+    /**
+     * Calculate the binary logarithm.
+     *
+     * @param value The value.
+     * @return The binary logarithm of the value.
+     */
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+
+    /**
+     * Get the string representation of the discretizer.
+     *
+     * @return The name of the discretizer.
+     */
+    @Override
+    public String toString() {
+        return "entropy (MDL)";
+    }
+}
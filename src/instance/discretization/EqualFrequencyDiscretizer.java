@@ -0,0 +1,65 @@
+package instance.discretization;
+
+import instance.column.NumericColumn;
+import instance.extent.Extent;
+
+/**
+ * Discretization into a fixed amount of bins, that each hold about the same amount of instances.
+ * Instances with the same value always end up in the same bin, so heavily repeated values can give fewer bins.
+ */
+public class EqualFrequencyDiscretizer extends AbstractDiscretizer {
+    //The amount of bins.
+    private final int bins;
+
+    /**
+     * Create an equal frequency discretizer.
+     *
+     * @param bins The amount of bins, which is at least 2.
+     */
+    public EqualFrequencyDiscretizer(int bins) {
+        if(bins < 2) {
+            throw new IllegalArgumentException("At least 2 bins are required, got " + bins + ".");
+        }
+        this.bins = bins;
+    }
+
+    /**
+     * Find the cut points of the column, such that bin i ends at the value of the instance at i / bins of the sorted order.
+     *
+     * @param column The numeric column to discretize.
+     * @param positives The extent of the positive instances, which is not used.
+     * @return The cut points of the column.
+     */
+    @Override
+    public CutPoints discretize(NumericColumn column, Extent positives) {
+        boolean[] cuts = new boolean[column.getRankCount()];
+        int rows = column.getSortedRowCount();
+        int rank = 0;
+        for(int bin = 1; bin < bins; bin++) {
+            //Find the rank of the last instance of the bin.
+            long index = (long) bin * rows / bins;
+            if(index == 0) {
+                continue;
+            }
+            while(column.getRankEnd(rank) < index) {
+                rank++;
+            }
+
+            //A cut point after the highest value would not split anything.
+            if(rank < cuts.length - 1) {
+                cuts[rank] = true;
+            }
+        }
+        return new CutPoints(column, cuts);
+    }
+
+    /**
+     * Get the string representation of the discretizer.
+     *
+     * @return The name and amount of bins.
+     */
+    @Override
+    public String toString() {
+        return "equal frequency (" + bins + " bins)";
+    }
+}
@@ -0,0 +1,183 @@
+package instance.extent;
+
+import java.util.Arrays;
+
+/**
+ * Container holding a sorted array of values, which is used for sparse blocks.
+ */
+class ArrayContainer extends Container {
+    //The sorted values, and the amount of values in use.
+    private final char[] values;
+    private final int cardinality;
+
+    /**
+     * Create an array container.
+     *
+     * @param values The sorted values.
+     * @param cardinality The amount of values in use.
+     */
+    ArrayContainer(char[] values, int cardinality) {
+        this.values = values;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Create an array container holding the set bits of the bitmap.
+     *
+     * @param words The bitmap.
+     * @param offset The index of the first word of the block.
+     * @param length The amount of words in the block.
+     * @param cardinality The amount of set bits in the block.
+     * @return The array container.
+     */
+    static ArrayContainer fromWords(long[] words, int offset, int length, int cardinality) {
+        char[] values = new char[cardinality];
+        int count = 0;
+        for(int i = 0; i < length; i++) {
+            long word = words[offset + i];
+            while(word != 0) {
+                values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values, count);
+    }
+
+    /**
+     * Get the value at the given index.
+     *
+     * @param index The index in the sorted array.
+     * @return The value.
+     */
+    int get(int index) {
+        return values[index];
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, cardinality, (char) value) >= 0;
+    }
+
+    @Override
+    int andCardinality(Container other) {
+        if(other instanceof ArrayContainer) {
+            ArrayContainer array = (ArrayContainer) other;
+            int count = 0;
+            int i = 0, j = 0;
+            while(i < cardinality && j < array.cardinality) {
+                if(values[i] < array.values[j]) {
+                    i++;
+                } else if(values[i] > array.values[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        //Bitmap and run containers answer membership queries quickly.
+        int count = 0;
+        for(int i = 0; i < cardinality; i++) {
+            if(other.contains(values[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    Container and(Container other) {
+        char[] result = new char[cardinality];
+        int count = 0;
+        if(other instanceof ArrayContainer) {
+            ArrayContainer array = (ArrayContainer) other;
+            int i = 0, j = 0;
+            while(i < cardinality && j < array.cardinality) {
+                if(values[i] < array.values[j]) {
+                    i++;
+                } else if(values[i] > array.values[j]) {
+                    j++;
+                } else {
+                    result[count++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+        } else {
+            for(int i = 0; i < cardinality; i++) {
+                if(other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+        }
+        return new ArrayContainer(result, count);
+    }
+
+    /**
+     * Create the union with the other array container.
+     *
+     * @param other The other array container.
+     * @return The union, as an array container if it is small enough, and as a bitmap container otherwise.
+     */
+    Container or(ArrayContainer other) {
+        char[] result = new char[cardinality + other.cardinality];
+        int count = 0;
+        int i = 0, j = 0;
+        while(i < cardinality || j < other.cardinality) {
+            if(j == other.cardinality || (i < cardinality && values[i] < other.values[j])) {
+                result[count++] = values[i++];
+            } else if(i == cardinality || values[i] > other.values[j]) {
+                result[count++] = other.values[j++];
+            } else {
+                result[count++] = values[i];
+                i++;
+                j++;
+            }
+        }
+        if(count > ARRAY_LIMIT) {
+            long[] words = new long[WORDS];
+            new ArrayContainer(result, count).fill(words, 0);
+            return new BitmapContainer(words, 0, WORDS);
+        }
+        return new ArrayContainer(result, count);
+    }
+
+    @Override
+    void fill(long[] words, int offset) {
+        for(int i = 0; i < cardinality; i++) {
+            words[offset + (values[i] >>> 6)] |= 1L << values[i];
+        }
+    }
+
+    @Override
+    int collect(int[] rows, int index, int base) {
+        for(int i = 0; i < cardinality; i++) {
+            rows[index++] = base + values[i];
+        }
+        return index;
+    }
+
+    @Override
+    int countRuns() {
+        int runs = 0;
+        for(int i = 0; i < cardinality; i++) {
+            if(i == 0 || values[i] != values[i - 1] + 1) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    @Override
+    int getSizeInBytes() {
+        return cardinality * Character.BYTES;
+    }
+}
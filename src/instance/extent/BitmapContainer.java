@@ -0,0 +1,143 @@
+package instance.extent;
+
+/**
+ * Container holding a bitmap of values, which is used for dense blocks.
+ * The container can be a view on a part of a larger bitmap, in which case the words after its length are zero.
+ */
+class BitmapContainer extends Container {
+    //The bitmap, the index of the first word of the container and the amount of words in the container.
+    private final long[] words;
+    private final int offset;
+    private final int length;
+
+    //The cardinality, which is calculated on first use.
+    private int cardinality = -1;
+
+    /**
+     * Create a bitmap container.
+     *
+     * @param words The bitmap holding the container.
+     * @param offset The index of the first word of the container.
+     * @param length The amount of words in the container, which is at most {@link #WORDS}.
+     */
+    BitmapContainer(long[] words, int offset, int length) {
+        this.words = words;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Whether the container owns a complete bitmap, rather than being a view on a larger one.
+     *
+     * @return True if the container has its own bitmap of {@link #WORDS} words.
+     */
+    boolean isFull() {
+        return offset == 0 && length == WORDS && words.length == WORDS;
+    }
+
+    /**
+     * Get the word at the given index.
+     *
+     * @param index The index of the word within the container.
+     * @return The word, which is zero beyond the length of the container.
+     */
+    long getWord(int index) {
+        return index < length ? words[offset + index] : 0;
+    }
+
+    /**
+     * Count the values within the given range.
+     *
+     * @param from The first value of the range.
+     * @param to The last value of the range, inclusive.
+     * @return The amount of values in the range.
+     */
+    int rangeCardinality(int from, int to) {
+        int firstWord = from >>> 6;
+        int lastWord = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if(firstWord == lastWord) {
+            return Long.bitCount(getWord(firstWord) & firstMask & lastMask);
+        }
+        int count = Long.bitCount(getWord(firstWord) & firstMask);
+        for(int i = firstWord + 1; i < lastWord; i++) {
+            count += Long.bitCount(getWord(i));
+        }
+        return count + Long.bitCount(getWord(lastWord) & lastMask);
+    }
+
+    @Override
+    int cardinality() {
+        if(cardinality == -1) {
+            int count = 0;
+            for(int i = 0; i < length; i++) {
+                count += Long.bitCount(words[offset + i]);
+            }
+            cardinality = count;
+        }
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(int value) {
+        return (getWord(value >>> 6) & (1L << value)) != 0;
+    }
+
+    @Override
+    int andCardinality(Container other) {
+        if(other instanceof BitmapContainer) {
+            BitmapContainer bitmap = (BitmapContainer) other;
+            int count = 0;
+            int common = Math.min(length, bitmap.length);
+            for(int i = 0; i < common; i++) {
+                count += Long.bitCount(words[offset + i] & bitmap.words[bitmap.offset + i]);
+            }
+            return count;
+        }
+        return other.andCardinality(this);
+    }
+
+    @Override
+    Container and(Container other) {
+        if(other instanceof BitmapContainer) {
+            BitmapContainer bitmap = (BitmapContainer) other;
+            long[] result = new long[WORDS];
+            int common = Math.min(length, bitmap.length);
+            for(int i = 0; i < common; i++) {
+                result[i] = words[offset + i] & bitmap.words[bitmap.offset + i];
+            }
+            return new BitmapContainer(result, 0, WORDS);
+        }
+        return other.and(this);
+    }
+
+    @Override
+    void fill(long[] words, int offset) {
+        for(int i = 0; i < length; i++) {
+            words[offset + i] |= this.words[this.offset + i];
+        }
+    }
+
+    @Override
+    int collect(int[] rows, int index, int base) {
+        for(int i = 0; i < length; i++) {
+            long word = words[offset + i];
+            while(word != 0) {
+                rows[index++] = base + (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    int countRuns() {
+        return countRuns(words, offset, length);
+    }
+
+    @Override
+    int getSizeInBytes() {
+        return WORDS * Long.BYTES;
+    }
+}
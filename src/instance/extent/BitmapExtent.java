@@ -0,0 +1,164 @@
+package instance.extent;
+
+/**
+ * Extent stored as a plain bitmap in which bit i is set if instance i is covered, which is used for dense extents.
+ * Operations between two bitmap extents work word by word, without going through the containers.
+ */
+public class BitmapExtent extends Extent {
+    //The words of the bitmap.
+    private final long[] words;
+
+    //The cardinality, which is calculated on first use.
+    private int cardinality = -1;
+
+    /**
+     * Create an extent from the given bitmap.
+     *
+     * @param words The words of the bitmap, which should not be modified afterwards.
+     * @param size The amount of instances in the data set.
+     */
+    public BitmapExtent(long[] words, int size) {
+        super(size);
+        this.words = words;
+    }
+
+    /**
+     * Get the words of the bitmap, which should not be modified.
+     *
+     * @return The words of the bitmap.
+     */
+    long[] getWords() {
+        return words;
+    }
+
+    @Override
+    public boolean contains(int row) {
+        return (words[row >>> 6] & (1L << row)) != 0;
+    }
+
+    @Override
+    public int cardinality() {
+        if(cardinality == -1) {
+            int count = 0;
+            for(long word : words) {
+                count += Long.bitCount(word);
+            }
+            cardinality = count;
+        }
+        return cardinality;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    @Override
+    int getContainerCount() {
+        return (words.length + Container.WORDS - 1) / Container.WORDS;
+    }
+
+    @Override
+    int getKey(int index) {
+        return index;
+    }
+
+    @Override
+    Container getContainer(int index) {
+        int offset = index * Container.WORDS;
+        return new BitmapContainer(words, offset, Math.min(Container.WORDS, words.length - offset));
+    }
+
+    @Override
+    public int andCardinality(Extent other) {
+        //The operation is symmetric, so the bitmap outside of the heap can use its fast path.
+        if(other instanceof DirectBitmapExtent) {
+            return other.andCardinality(this);
+        }
+        if(!(other instanceof BitmapExtent)) {
+            return super.andCardinality(other);
+        }
+        long[] otherWords = ((BitmapExtent) other).words;
+        int count = 0;
+        for(int i = 0; i < words.length; i++) {
+            count += Long.bitCount(words[i] & otherWords[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int andCardinality(Extent first, Extent second) {
+        if(!(first instanceof BitmapExtent && second instanceof BitmapExtent)) {
+            return super.andCardinality(first, second);
+        }
+        long[] firstWords = ((BitmapExtent) first).words;
+        long[] secondWords = ((BitmapExtent) second).words;
+        int count = 0;
+        for(int i = 0; i < words.length; i++) {
+            count += Long.bitCount(words[i] & firstWords[i] & secondWords[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int orCardinality(Extent other) {
+        if(other instanceof DirectBitmapExtent) {
+            return other.orCardinality(this);
+        }
+        if(!(other instanceof BitmapExtent)) {
+            return super.orCardinality(other);
+        }
+        long[] otherWords = ((BitmapExtent) other).words;
+        int count = 0;
+        for(int i = 0; i < words.length; i++) {
+            count += Long.bitCount(words[i] | otherWords[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int orAndCardinality(Extent other, Extent mask) {
+        if(!(other instanceof BitmapExtent && mask instanceof BitmapExtent)) {
+            return super.orAndCardinality(other, mask);
+        }
+        long[] otherWords = ((BitmapExtent) other).words;
+        long[] maskWords = ((BitmapExtent) mask).words;
+        int count = 0;
+        for(int i = 0; i < words.length; i++) {
+            count += Long.bitCount((words[i] | otherWords[i]) & maskWords[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public Extent and(Extent other) {
+        if(other instanceof DirectBitmapExtent) {
+            return other.and(this);
+        }
+        if(!(other instanceof BitmapExtent)) {
+            return super.and(other);
+        }
+        long[] otherWords = ((BitmapExtent) other).words;
+        long[] result = new long[words.length];
+        for(int i = 0; i < words.length; i++) {
+            result[i] = words[i] & otherWords[i];
+        }
+        return of(result, size());
+    }
+
+    @Override
+    public Extent or(Extent other) {
+        if(other instanceof DirectBitmapExtent) {
+            return other.or(this);
+        }
+        if(!(other instanceof BitmapExtent)) {
+            return super.or(other);
+        }
+        long[] otherWords = ((BitmapExtent) other).words;
+        long[] result = new long[words.length];
+        for(int i = 0; i < words.length; i++) {
+            result[i] = words[i] | otherWords[i];
+        }
+        return of(result, size());
+    }
+}
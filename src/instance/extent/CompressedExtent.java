@@ -0,0 +1,75 @@
+package instance.extent;
+
+import java.util.Arrays;
+
+/**
+ * Extent stored as a sorted list of containers, one for every block of 65536 instances that contains a covered
+ * instance. Each container uses the smallest of an array, bitmap or run representation, which makes sparse extents of
+ * large data sets cheap to keep around.
+ */
+public class CompressedExtent extends Extent {
+    //The keys of the non-empty blocks, and their containers.
+    private final int[] keys;
+    private final Container[] containers;
+    private final int count;
+
+    //The cardinality, which is calculated on first use.
+    private int cardinality = -1;
+
+    /**
+     * Create a compressed extent.
+     *
+     * @param keys The sorted keys of the containers.
+     * @param containers The non-empty containers.
+     * @param count The amount of containers in use.
+     * @param size The amount of instances in the data set.
+     */
+    CompressedExtent(int[] keys, Container[] containers, int count, int size) {
+        super(size);
+        this.keys = keys;
+        this.containers = containers;
+        this.count = count;
+    }
+
+    @Override
+    public boolean contains(int row) {
+        int index = Arrays.binarySearch(keys, 0, count, row >>> 16);
+        return index >= 0 && containers[index].contains(row & 0xFFFF);
+    }
+
+    @Override
+    public int cardinality() {
+        if(cardinality == -1) {
+            int total = 0;
+            for(int i = 0; i < count; i++) {
+                total += containers[i].cardinality();
+            }
+            cardinality = total;
+        }
+        return cardinality;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        long total = 0;
+        for(int i = 0; i < count; i++) {
+            total += containers[i].getSizeInBytes();
+        }
+        return total;
+    }
+
+    @Override
+    int getContainerCount() {
+        return count;
+    }
+
+    @Override
+    int getKey(int index) {
+        return keys[index];
+    }
+
+    @Override
+    Container getContainer(int index) {
+        return containers[index];
+    }
+}
@@ -0,0 +1,194 @@
+package instance.extent;
+
+/**
+ * A set of the lower 16 bits of the instances within a block of 65536 consecutive instances.
+ */
+abstract class Container {
+    //The amount of instances within a single container.
+    static final int CAPACITY = 1 << 16;
+
+    //The amount of words in a bitmap container.
+    static final int WORDS = CAPACITY / 64;
+
+    //The largest cardinality for which an array container is smaller than a bitmap container.
+    static final int ARRAY_LIMIT = 4096;
+
+    //The size of a bitmap container in bytes.
+    static final int BITMAP_BYTES = WORDS * Long.BYTES;
+
+    //The types of containers.
+    static final int ARRAY = 0;
+    static final int BITMAP = 1;
+    static final int RUN = 2;
+
+    /**
+     * Get the amount of values in the container.
+     *
+     * @return The cardinality.
+     */
+    abstract int cardinality();
+
+    /**
+     * Check whether the value is part of the container.
+     *
+     * @param value The lower 16 bits of the instance.
+     * @return True if the value is in the container, false otherwise.
+     */
+    abstract boolean contains(int value);
+
+    /**
+     * Get the size of the intersection with the other container, without creating it.
+     *
+     * @param other The other container.
+     * @return The size of the intersection.
+     */
+    abstract int andCardinality(Container other);
+
+    /**
+     * Create the intersection with the other container.
+     *
+     * @param other The other container.
+     * @return The intersection, which is not necessarily in its smallest representation.
+     */
+    abstract Container and(Container other);
+
+    /**
+     * Set the bits of the values in this container in the given bitmap.
+     *
+     * @param words The bitmap, which has at least {@link #WORDS} words after the offset.
+     * @param offset The index of the first word of the container in the bitmap.
+     */
+    abstract void fill(long[] words, int offset);
+
+    /**
+     * Write the instances in this container to the given array, in increasing order.
+     *
+     * @param rows The array to write the instances to.
+     * @param index The index in the array of the first instance of this container.
+     * @param base The first instance of the block of this container.
+     * @return The index in the array after the last instance of this container.
+     */
+    abstract int collect(int[] rows, int index, int base);
+
+    /**
+     * Get the amount of bytes the container uses for its values.
+     *
+     * @return The size of the container in bytes.
+     */
+    abstract int getSizeInBytes();
+
+    /**
+     * Create the union with the other container.
+     *
+     * @param other The other container.
+     * @return The union, which is not necessarily in its smallest representation.
+     */
+    Container or(Container other) {
+        if(this instanceof ArrayContainer && other instanceof ArrayContainer) {
+            return ((ArrayContainer) this).or((ArrayContainer) other);
+        }
+        long[] words = new long[WORDS];
+        this.fill(words, 0);
+        other.fill(words, 0);
+        return new BitmapContainer(words, 0, WORDS);
+    }
+
+    /**
+     * Count the amount of runs of consecutive values in the container.
+     *
+     * @return The amount of runs.
+     */
+    abstract int countRuns();
+
+    /**
+     * Convert the container to the representation that uses the least memory.
+     *
+     * @return An array, bitmap or run container with the same values, or null if the container is empty.
+     */
+    Container optimize() {
+        int cardinality = cardinality();
+        if(cardinality == 0) {
+            return null;
+        }
+        int runs = countRuns();
+        int type = getSmallestType(cardinality, runs);
+        if(type == ARRAY && this instanceof ArrayContainer || type == RUN && this instanceof RunContainer
+                || type == BITMAP && this instanceof BitmapContainer && ((BitmapContainer) this).isFull()) {
+            return this;
+        }
+        long[] words = new long[WORDS];
+        fill(words, 0);
+        return create(words, 0, type, cardinality, runs);
+    }
+
+    /**
+     * Get the representation that uses the least memory for the given values.
+     *
+     * @param cardinality The amount of values.
+     * @param runs The amount of runs of consecutive values.
+     * @return One of {@link #ARRAY}, {@link #BITMAP} or {@link #RUN}.
+     */
+    static int getSmallestType(int cardinality, int runs) {
+        int arrayBytes = cardinality * Character.BYTES;
+        int runBytes = runs * 2 * Character.BYTES;
+        if(runBytes < arrayBytes && runBytes < BITMAP_BYTES) {
+            return RUN;
+        }
+        return arrayBytes < BITMAP_BYTES ? ARRAY : BITMAP;
+    }
+
+    /**
+     * Get the amount of bytes used by the smallest representation of the given values.
+     *
+     * @param cardinality The amount of values.
+     * @param runs The amount of runs of consecutive values.
+     * @return The size in bytes.
+     */
+    static int getSmallestSize(int cardinality, int runs) {
+        return Math.min(BITMAP_BYTES, Math.min(cardinality, 2 * runs) * Character.BYTES);
+    }
+
+    /**
+     * Create a container of the given type from a block of a bitmap.
+     *
+     * @param words The bitmap.
+     * @param offset The index of the first word of the block.
+     * @param type The type of container to create.
+     * @param cardinality The amount of set bits in the block.
+     * @param runs The amount of runs in the block.
+     * @return The container, which does not share the bitmap.
+     */
+    static Container create(long[] words, int offset, int type, int cardinality, int runs) {
+        int length = Math.min(WORDS, words.length - offset);
+        switch (type) {
+            case ARRAY:
+                return ArrayContainer.fromWords(words, offset, length, cardinality);
+            case RUN:
+                return RunContainer.fromWords(words, offset, length, runs);
+            default:
+                long[] copy = new long[WORDS];
+                System.arraycopy(words, offset, copy, 0, length);
+                return new BitmapContainer(copy, 0, WORDS);
+        }
+    }
+
+    /**
+     * Count the amount of runs of consecutive set bits in a block of a bitmap.
+     *
+     * @param words The bitmap.
+     * @param offset The index of the first word of the block.
+     * @param length The amount of words in the block.
+     * @return The amount of runs.
+     */
+    static int countRuns(long[] words, int offset, int length) {
+        int runs = 0;
+        long previousTop = 0;
+        for(int i = offset; i < offset + length; i++) {
+            long word = words[i];
+            //A run starts at every set bit of which the preceding bit is not set.
+            runs += Long.bitCount(word & ~((word << 1) | previousTop));
+            previousTop = word >>> 63;
+        }
+        return runs;
+    }
+}
@@ -0,0 +1,184 @@
+package instance.extent;
+
+import java.nio.LongBuffer;
+
+/**
+ * Extent stored as a plain bitmap outside of the Java heap, which is used for the dense extents that belong to the
+ * data set itself, such as the missing values of a column. The bitmap is owned by whoever allocated it, and cannot be
+ * used anymore once it has been released. Operations never return extents that refer to the bitmap, so extents
+ * derived from this one stay valid after it has been released.
+ */
+public class DirectBitmapExtent extends Extent {
+    //The words of the bitmap, which is null once the bitmap has been released. It is volatile, such that a release by
+    //the thread closing the arena is seen by the threads reading the bitmap.
+    private volatile LongBuffer words;
+
+    //The amount of words, and the cardinality, which is calculated on first use.
+    private final int wordCount;
+    private int cardinality = -1;
+
+    /**
+     * Create an extent from the given bitmap.
+     *
+     * @param words The words of the bitmap, which should not be modified afterwards.
+     * @param size The amount of instances in the data set.
+     */
+    public DirectBitmapExtent(LongBuffer words, int size) {
+        super(size);
+        this.words = words;
+        this.wordCount = words.limit();
+    }
+
+    /**
+     * Stop using the bitmap, such that its memory can be freed. Using the extent afterwards throws an exception,
+     * rather than reading freed memory. Releasing the bitmap while an operation on the extent is running is
+     * undefined, so it should only be released once no search is using the extent anymore.
+     */
+    public void release() {
+        words = null;
+    }
+
+    /**
+     * Get the words of the bitmap, which are read once per operation.
+     *
+     * @return The words.
+     * @throws IllegalStateException If the bitmap has been released.
+     */
+    private LongBuffer getBuffer() {
+        LongBuffer words = this.words;
+        if(words == null) {
+            throw new IllegalStateException("The bitmap has been released.");
+        }
+        return words;
+    }
+
+    @Override
+    public boolean contains(int row) {
+        return (getBuffer().get(row >>> 6) & (1L << row)) != 0;
+    }
+
+    @Override
+    public int cardinality() {
+        if(cardinality == -1) {
+            LongBuffer words = getBuffer();
+            int count = 0;
+            for(int i = 0; i < wordCount; i++) {
+                count += Long.bitCount(words.get(i));
+            }
+            cardinality = count;
+        }
+        return cardinality;
+    }
+
+    @Override
+    public long getSizeInBytes() {
+        return (long) wordCount * Long.BYTES;
+    }
+
+    @Override
+    int getContainerCount() {
+        return (wordCount + Container.WORDS - 1) / Container.WORDS;
+    }
+
+    @Override
+    int getKey(int index) {
+        return index;
+    }
+
+    @Override
+    Container getContainer(int index) {
+        //The container is a copy on the heap, such that it outlives the bitmap.
+        int offset = index * Container.WORDS;
+        long[] block = new long[Container.WORDS];
+        LongBuffer view = getBuffer().duplicate();
+        view.position(offset);
+        view.get(block, 0, Math.min(Container.WORDS, wordCount - offset));
+        return new BitmapContainer(block, 0, Container.WORDS);
+    }
+
+    @Override
+    public int andCardinality(Extent other) {
+        if(!(other instanceof BitmapExtent)) {
+            return super.andCardinality(other);
+        }
+        long[] otherWords = ((BitmapExtent) other).getWords();
+        LongBuffer words = getBuffer();
+        int count = 0;
+        for(int i = 0; i < wordCount; i++) {
+            count += Long.bitCount(words.get(i) & otherWords[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int andCardinality(Extent first, Extent second) {
+        if(!(first instanceof BitmapExtent && second instanceof BitmapExtent)) {
+            return super.andCardinality(first, second);
+        }
+        long[] firstWords = ((BitmapExtent) first).getWords();
+        long[] secondWords = ((BitmapExtent) second).getWords();
+        LongBuffer words = getBuffer();
+        int count = 0;
+        for(int i = 0; i < wordCount; i++) {
+            count += Long.bitCount(words.get(i) & firstWords[i] & secondWords[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int orCardinality(Extent other) {
+        if(!(other instanceof BitmapExtent)) {
+            return super.orCardinality(other);
+        }
+        long[] otherWords = ((BitmapExtent) other).getWords();
+        LongBuffer words = getBuffer();
+        int count = 0;
+        for(int i = 0; i < wordCount; i++) {
+            count += Long.bitCount(words.get(i) | otherWords[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public int orAndCardinality(Extent other, Extent mask) {
+        if(!(other instanceof BitmapExtent && mask instanceof BitmapExtent)) {
+            return super.orAndCardinality(other, mask);
+        }
+        long[] otherWords = ((BitmapExtent) other).getWords();
+        long[] maskWords = ((BitmapExtent) mask).getWords();
+        LongBuffer words = getBuffer();
+        int count = 0;
+        for(int i = 0; i < wordCount; i++) {
+            count += Long.bitCount((words.get(i) | otherWords[i]) & maskWords[i]);
+        }
+        return count;
+    }
+
+    @Override
+    public Extent and(Extent other) {
+        if(!(other instanceof BitmapExtent)) {
+            return super.and(other);
+        }
+        long[] otherWords = ((BitmapExtent) other).getWords();
+        LongBuffer words = getBuffer();
+        long[] result = new long[wordCount];
+        for(int i = 0; i < wordCount; i++) {
+            result[i] = words.get(i) & otherWords[i];
+        }
+        return of(result, size());
+    }
+
+    @Override
+    public Extent or(Extent other) {
+        if(!(other instanceof BitmapExtent)) {
+            return super.or(other);
+        }
+        long[] otherWords = ((BitmapExtent) other).getWords();
+        LongBuffer words = getBuffer();
+        long[] result = new long[wordCount];
+        for(int i = 0; i < wordCount; i++) {
+            result[i] = words.get(i) | otherWords[i];
+        }
+        return of(result, size());
+    }
+}
@@ -0,0 +1,336 @@
+package instance.extent;
+
+import java.util.Arrays;
+
+/**
+ * The set of instances covered by a (sub)group.
+ *
+ * The instances are divided into blocks of 65536 consecutive instances, each of which is stored in a container.
+ * Dense extents are stored as a single plain bitmap, while sparse extents are stored in compressed form, in which each
+ * non-empty block uses the smallest of an array, bitmap or run container. The representation is chosen per extent,
+ * and all operations work on any combination of representations.
+ */
+public abstract class Extent {
+    //The amount of instances in the data set.
+    private final int size;
+
+    /**
+     * Create an extent.
+     *
+     * @param size The amount of instances in the data set.
+     */
+    Extent(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Create an extent from the given bitmap, using the representation that fits its density.
+     *
+     * @param words The words of the bitmap, in which bit i is set if instance i is covered. The words should not be
+     *              modified afterwards.
+     * @param size The amount of instances in the data set.
+     * @return The extent.
+     */
+    public static Extent of(long[] words, int size) {
+        //Estimate the size of the compressed form before creating any of the containers.
+        int blocks = (words.length + Container.WORDS - 1) / Container.WORDS;
+        int[] cardinalities = new int[blocks];
+        int[] runs = new int[blocks];
+        long compressedBytes = 0;
+        for(int block = 0; block < blocks; block++) {
+            int offset = block * Container.WORDS;
+            int length = Math.min(Container.WORDS, words.length - offset);
+            for(int i = offset; i < offset + length; i++) {
+                cardinalities[block] += Long.bitCount(words[i]);
+            }
+            if(cardinalities[block] != 0) {
+                runs[block] = Container.countRuns(words, offset, length);
+                compressedBytes += Container.getSmallestSize(cardinalities[block], runs[block]);
+            }
+        }
+        if(!isCompressible(compressedBytes, words.length)) {
+            return new BitmapExtent(words, size);
+        }
+
+        int[] keys = new int[blocks];
+        Container[] containers = new Container[blocks];
+        int count = 0;
+        for(int block = 0; block < blocks; block++) {
+            if(cardinalities[block] != 0) {
+                int type = Container.getSmallestType(cardinalities[block], runs[block]);
+                keys[count] = block;
+                containers[count++] = Container.create(words, block * Container.WORDS, type, cardinalities[block], runs[block]);
+            }
+        }
+        return new CompressedExtent(keys, containers, count, size);
+    }
+
+    /**
+     * Create an extent from the given containers, using the representation that fits its density.
+     *
+     * @param keys The sorted block indices of the containers.
+     * @param containers The containers, which may be empty or not in their smallest representation.
+     * @param count The amount of containers in use.
+     * @param size The amount of instances in the data set.
+     * @return The extent.
+     */
+    static Extent of(int[] keys, Container[] containers, int count, int size) {
+        int used = 0;
+        long compressedBytes = 0;
+        for(int i = 0; i < count; i++) {
+            Container container = containers[i].optimize();
+            if(container != null) {
+                keys[used] = keys[i];
+                containers[used++] = container;
+                compressedBytes += container.getSizeInBytes();
+            }
+        }
+
+        int wordCount = (size + 63) >>> 6;
+        if(isCompressible(compressedBytes, wordCount)) {
+            return new CompressedExtent(keys, containers, used, size);
+        }
+        long[] words = new long[wordCount];
+        long[] block = new long[Container.WORDS];
+        for(int i = 0; i < used; i++) {
+            int offset = keys[i] * Container.WORDS;
+            Arrays.fill(block, 0);
+            containers[i].fill(block, 0);
+            System.arraycopy(block, 0, words, offset, Math.min(Container.WORDS, wordCount - offset));
+        }
+        return new BitmapExtent(words, size);
+    }
+
+    /**
+     * Whether the compressed form is small enough to be worth the slower operations, compared to a plain bitmap.
+     *
+     * @param compressedBytes The size of the compressed form in bytes.
+     * @param wordCount The amount of words in the plain bitmap.
+     * @return True if the compressed form should be used.
+     */
+    private static boolean isCompressible(long compressedBytes, int wordCount) {
+        return compressedBytes * 2 < (long) wordCount * Long.BYTES;
+    }
+
+    /**
+     * Get the amount of instances in the data set.
+     *
+     * @return The amount of instances.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether the instance is part of the extent.
+     *
+     * @param row The index of the instance.
+     * @return True if the instance is covered, false otherwise.
+     */
+    public abstract boolean contains(int row);
+
+    /**
+     * Get the amount of instances in the extent.
+     *
+     * @return The amount of covered instances.
+     */
+    public abstract int cardinality();
+
+    /**
+     * Get the covered instances, which is faster to iterate over than checking every instance of the data set when
+     * the extent is small.
+     *
+     * @return The indices of the covered instances, in increasing order.
+     */
+    public int[] toArray() {
+        int[] rows = new int[cardinality()];
+        int index = 0;
+        for(int i = 0; i < getContainerCount(); i++) {
+            index = getContainer(i).collect(rows, index, getKey(i) * Container.CAPACITY);
+        }
+        return rows;
+    }
+
+    /**
+     * Get the amount of memory used to store the covered instances.
+     *
+     * @return The size in bytes.
+     */
+    public abstract long getSizeInBytes();
+
+    /**
+     * Get the amount of non-empty containers, ordered by their key.
+     *
+     * @return The amount of containers.
+     */
+    abstract int getContainerCount();
+
+    /**
+     * Get the key of the container, which is the index of the block of instances it covers.
+     *
+     * @param index The index of the container.
+     * @return The key of the container.
+     */
+    abstract int getKey(int index);
+
+    /**
+     * Get the container at the given index.
+     *
+     * @param index The index of the container.
+     * @return The container.
+     */
+    abstract Container getContainer(int index);
+
+    /**
+     * Get the amount of instances in both this extent and the other extent, without creating the intersection.
+     *
+     * @param other The other extent.
+     * @return The size of the intersection.
+     */
+    public int andCardinality(Extent other) {
+        int count = 0;
+        int i = 0, j = 0;
+        while(i < getContainerCount() && j < other.getContainerCount()) {
+            int key = getKey(i);
+            int otherKey = other.getKey(j);
+            if(key < otherKey) {
+                i++;
+            } else if(key > otherKey) {
+                j++;
+            } else {
+                count += getContainer(i++).andCardinality(other.getContainer(j++));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the amount of instances in this extent and both other extents, without creating the intersection.
+     *
+     * @param first The first other extent.
+     * @param second The second other extent.
+     * @return The size of the intersection of all three extents.
+     */
+    public int andCardinality(Extent first, Extent second) {
+        int count = 0;
+        int i = 0, j = 0, k = 0;
+        while(i < getContainerCount() && j < first.getContainerCount() && k < second.getContainerCount()) {
+            int key = Math.max(getKey(i), Math.max(first.getKey(j), second.getKey(k)));
+            if(getKey(i) < key) {
+                i++;
+            } else if(first.getKey(j) < key) {
+                j++;
+            } else if(second.getKey(k) < key) {
+                k++;
+            } else {
+                count += andCardinality(getContainer(i++), first.getContainer(j++), second.getContainer(k++));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the size of the intersection of three containers.
+     *
+     * @param a The first container.
+     * @param b The second container.
+     * @param c The third container.
+     * @return The size of the intersection.
+     */
+    private static int andCardinality(Container a, Container b, Container c) {
+        //Probe the array container, if any, such that the intersection does not have to be created.
+        if(a instanceof ArrayContainer) {
+            ArrayContainer array = (ArrayContainer) a;
+            int count = 0;
+            for(int i = 0; i < array.cardinality(); i++) {
+                int value = array.get(i);
+                if(b.contains(value) && c.contains(value)) {
+                    count++;
+                }
+            }
+            return count;
+        } else if(b instanceof ArrayContainer) {
+            return andCardinality(b, a, c);
+        } else if(c instanceof ArrayContainer) {
+            return andCardinality(c, a, b);
+        }
+        return a.and(b).andCardinality(c);
+    }
+
+    /**
+     * Get the amount of instances in this extent or the other extent, without creating the union.
+     *
+     * @param other The other extent.
+     * @return The size of the union.
+     */
+    public int orCardinality(Extent other) {
+        return cardinality() + other.cardinality() - andCardinality(other);
+    }
+
+    /**
+     * Get the amount of instances in the mask that are in this extent or the other extent, without creating the union.
+     *
+     * @param other The other extent.
+     * @param mask The extent to restrict the union to.
+     * @return The size of the intersection of the union with the mask.
+     */
+    public int orAndCardinality(Extent other, Extent mask) {
+        return andCardinality(mask) + other.andCardinality(mask) - andCardinality(other, mask);
+    }
+
+    /**
+     * Create the intersection of this extent and the other extent.
+     *
+     * @param other The other extent.
+     * @return The extent containing the instances in both extents.
+     */
+    public Extent and(Extent other) {
+        int capacity = Math.min(getContainerCount(), other.getContainerCount());
+        int[] keys = new int[capacity];
+        Container[] containers = new Container[capacity];
+        int count = 0;
+        int i = 0, j = 0;
+        while(i < getContainerCount() && j < other.getContainerCount()) {
+            int key = getKey(i);
+            int otherKey = other.getKey(j);
+            if(key < otherKey) {
+                i++;
+            } else if(key > otherKey) {
+                j++;
+            } else {
+                keys[count] = key;
+                containers[count++] = getContainer(i++).and(other.getContainer(j++));
+            }
+        }
+        return of(keys, containers, count, size);
+    }
+
+    /**
+     * Create the union of this extent and the other extent.
+     *
+     * @param other The other extent.
+     * @return The extent containing the instances in either extent.
+     */
+    public Extent or(Extent other) {
+        int capacity = getContainerCount() + other.getContainerCount();
+        int[] keys = new int[capacity];
+        Container[] containers = new Container[capacity];
+        int count = 0;
+        int i = 0, j = 0;
+        while(i < getContainerCount() || j < other.getContainerCount()) {
+            int key = i < getContainerCount() ? getKey(i) : Integer.MAX_VALUE;
+            int otherKey = j < other.getContainerCount() ? other.getKey(j) : Integer.MAX_VALUE;
+            if(key < otherKey) {
+                keys[count] = key;
+                containers[count++] = getContainer(i++);
+            } else if(key > otherKey) {
+                keys[count] = otherKey;
+                containers[count++] = other.getContainer(j++);
+            } else {
+                keys[count] = key;
+                containers[count++] = getContainer(i++).or(other.getContainer(j++));
+            }
+        }
+        return of(keys, containers, count, size);
+    }
+}
@@ -0,0 +1,215 @@
+package instance.extent;
+
+/**
+ * Container holding runs of consecutive values, which is used for blocks that are mostly full or mostly empty in order.
+ */
+class RunContainer extends Container {
+    //The runs, stored as pairs of the first value and the length of the run minus one.
+    private final char[] runs;
+    private final int runCount;
+
+    /**
+     * Create a run container.
+     *
+     * @param runs The sorted, non-overlapping runs, stored as pairs of the first value and the length minus one.
+     * @param runCount The amount of runs in use.
+     */
+    RunContainer(char[] runs, int runCount) {
+        this.runs = runs;
+        this.runCount = runCount;
+    }
+
+    /**
+     * Create a run container holding the set bits of a block of a bitmap.
+     *
+     * @param words The bitmap.
+     * @param offset The index of the first word of the block.
+     * @param length The amount of words in the block.
+     * @param runCount The amount of runs in the block.
+     * @return The run container.
+     */
+    static RunContainer fromWords(long[] words, int offset, int length, int runCount) {
+        char[] runs = new char[runCount * 2];
+        int count = 0;
+        int index = 0;
+        long word = length > 0 ? words[offset] : 0;
+        while(true) {
+            //Skip to the start of the next run.
+            while(word == 0 && ++index < length) {
+                word = words[offset + index];
+            }
+            if(word == 0) {
+                break;
+            }
+            int start = (index << 6) + Long.numberOfTrailingZeros(word);
+
+            //Fill the bits below the start, and skip to the end of the run.
+            word |= word - 1;
+            while(word == -1L && ++index < length) {
+                word = words[offset + index];
+            }
+            int end;
+            if(word == -1L) {
+                end = length << 6;
+                word = 0;
+            } else {
+                end = (index << 6) + Long.numberOfTrailingZeros(~word);
+                word &= word + 1;
+            }
+            runs[2 * count] = (char) start;
+            runs[2 * count + 1] = (char) (end - start - 1);
+            count++;
+        }
+        return new RunContainer(runs, count);
+    }
+
+    /**
+     * Get the first value of the run.
+     *
+     * @param run The index of the run.
+     * @return The first value.
+     */
+    private int start(int run) {
+        return runs[2 * run];
+    }
+
+    /**
+     * Get the last value of the run.
+     *
+     * @param run The index of the run.
+     * @return The last value, inclusive.
+     */
+    private int end(int run) {
+        return runs[2 * run] + runs[2 * run + 1];
+    }
+
+    @Override
+    int cardinality() {
+        int count = 0;
+        for(int i = 0; i < runCount; i++) {
+            count += runs[2 * i + 1] + 1;
+        }
+        return count;
+    }
+
+    @Override
+    boolean contains(int value) {
+        //Binary search for the last run that starts at or before the value.
+        int low = 0;
+        int high = runCount - 1;
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            if(start(middle) <= value) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high >= 0 && value <= end(high);
+    }
+
+    @Override
+    int andCardinality(Container other) {
+        if(other instanceof RunContainer) {
+            RunContainer run = (RunContainer) other;
+            int count = 0;
+            int i = 0, j = 0;
+            while(i < runCount && j < run.runCount) {
+                int start = Math.max(start(i), run.start(j));
+                int end = Math.min(end(i), run.end(j));
+                if(start <= end) {
+                    count += end - start + 1;
+                }
+                if(end(i) < run.end(j)) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return count;
+        } else if(other instanceof BitmapContainer) {
+            BitmapContainer bitmap = (BitmapContainer) other;
+            int count = 0;
+            for(int i = 0; i < runCount; i++) {
+                count += bitmap.rangeCardinality(start(i), end(i));
+            }
+            return count;
+        }
+        return other.andCardinality(this);
+    }
+
+    @Override
+    Container and(Container other) {
+        if(other instanceof RunContainer) {
+            RunContainer run = (RunContainer) other;
+            char[] result = new char[2 * (runCount + run.runCount)];
+            int count = 0;
+            int i = 0, j = 0;
+            while(i < runCount && j < run.runCount) {
+                int start = Math.max(start(i), run.start(j));
+                int end = Math.min(end(i), run.end(j));
+                if(start <= end) {
+                    result[2 * count] = (char) start;
+                    result[2 * count + 1] = (char) (end - start);
+                    count++;
+                }
+                if(end(i) < run.end(j)) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return new RunContainer(result, count);
+        } else if(other instanceof BitmapContainer) {
+            BitmapContainer bitmap = (BitmapContainer) other;
+            long[] result = new long[WORDS];
+            fill(result, 0);
+            for(int i = 0; i < WORDS; i++) {
+                result[i] &= bitmap.getWord(i);
+            }
+            return new BitmapContainer(result, 0, WORDS);
+        }
+        return other.and(this);
+    }
+
+    @Override
+    void fill(long[] words, int offset) {
+        for(int i = 0; i < runCount; i++) {
+            int start = start(i);
+            int end = end(i);
+            int firstWord = start >>> 6;
+            int lastWord = end >>> 6;
+            long firstMask = -1L << start;
+            long lastMask = -1L >>> (63 - (end & 63));
+            if(firstWord == lastWord) {
+                words[offset + firstWord] |= firstMask & lastMask;
+            } else {
+                words[offset + firstWord] |= firstMask;
+                for(int word = firstWord + 1; word < lastWord; word++) {
+                    words[offset + word] = -1L;
+                }
+                words[offset + lastWord] |= lastMask;
+            }
+        }
+    }
+
+    @Override
+    int collect(int[] rows, int index, int base) {
+        for(int i = 0; i < runCount; i++) {
+            for(int value = start(i); value <= end(i); value++) {
+                rows[index++] = base + value;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    int countRuns() {
+        return runCount;
+    }
+
+    @Override
+    int getSizeInBytes() {
+        return runCount * 2 * Character.BYTES;
+    }
+}
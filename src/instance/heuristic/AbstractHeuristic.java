@@ -21,4 +21,47 @@ public abstract class AbstractHeuristic {
      * @return Whether this heuristic counts unknowns as valid results in LEQ metric mode.
      */
     public abstract boolean countsUnknownsInLEQ();
+
+    /**
+     * Whether the heuristic is convex in the p and n values of the confusion table, for fixed P and N.
+     * A convex heuristic reaches its maximum over the thresholds of a sorted numeric attribute at a class boundary
+     * point, which is a cut point between two adjacent values that do not both belong purely to the same class.
+     * Only convex heuristics can safely be used with {@link instance.search.SearchOptions#setBoundaryPointsOnly(boolean)}.
+     *
+     * @return Whether the heuristic is convex, which is false unless proven otherwise.
+     */
+    public boolean isConvex() {
+        return false;
+    }
+
+    /**
+     * Get an upper bound on the evaluation of every refinement of a group with the given confusion table.
+     * A refinement covers a subset of the instances the group covers, so it has at most p positive and n negative
+     * instances, and it has to cover at least the minimum amount of instances of a group. Heuristics that count
+     * unknowns in LEQ metric mode can cover more instances than the group after a refinement, so they are never bounded.
+     *
+     * @param p The p value in the confusion table of the group.
+     * @param n The n value in the confusion table of the group.
+     * @param P The P value in the confusion table.
+     * @param N The N value in the confusion table.
+     * @param minimumCovered The minimum amount of instances a refinement covers.
+     * @return The optimistic estimate, which is infinite unless the heuristic provides a bound.
+     */
+    public double getOptimisticEstimate(double p, double n, double P, double N, double minimumCovered) {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Get the largest difference between the evaluation of a confusion table and the evaluation of an estimate of it,
+     * when the estimated p / P and n / N are off by at most the given amounts. P and N are known exactly.
+     *
+     * @param positiveError The largest error of the estimate of p / P.
+     * @param negativeError The largest error of the estimate of n / N.
+     * @param P The P value in the confusion table.
+     * @param N The N value in the confusion table.
+     * @return The error bound, which is infinite unless the heuristic provides a bound.
+     */
+    public double getErrorBound(double positiveError, double negativeError, double P, double N) {
+        return Double.POSITIVE_INFINITY;
+    }
 }
@@ -30,4 +30,30 @@ public class SensitivityQualityMeasureHeuristic extends AbstractHeuristic {
     public boolean countsUnknownsInLEQ() {
         return true;
     }
+
+    /**
+     * Whether the heuristic is convex in the p and n values of the confusion table.
+     * The heuristic is linear in p, and thus convex.
+     *
+     * @return True.
+     */
+    @Override
+    public boolean isConvex() {
+        return true;
+    }
+
+    /**
+     * Get the largest difference between the evaluation of a confusion table and the evaluation of an estimate of it.
+     * The heuristic is p / P itself.
+     *
+     * @param positiveError The largest error of the estimate of p / P.
+     * @param negativeError The largest error of the estimate of n / N.
+     * @param P The P value in the confusion table.
+     * @param N The N value in the confusion table.
+     * @return The error of p / P.
+     */
+    @Override
+    public double getErrorBound(double positiveError, double negativeError, double P, double N) {
+        return positiveError;
+    }
 }
@@ -31,4 +31,30 @@ public class SpecificityQualityMeasureHeuristic extends AbstractHeuristic {
     public boolean countsUnknownsInLEQ() {
         return false;
     }
+
+    /**
+     * Whether the heuristic is convex in the p and n values of the confusion table.
+     * The heuristic is linear in n, and thus convex.
+     *
+     * @return True.
+     */
+    @Override
+    public boolean isConvex() {
+        return true;
+    }
+
+    /**
+     * Get the largest difference between the evaluation of a confusion table and the evaluation of an estimate of it.
+     * The heuristic is 1 - n / N, which is off by as much as n / N.
+     *
+     * @param positiveError The largest error of the estimate of p / P.
+     * @param negativeError The largest error of the estimate of n / N.
+     * @param P The P value in the confusion table.
+     * @param N The N value in the confusion table.
+     * @return The error of n / N.
+     */
+    @Override
+    public double getErrorBound(double positiveError, double negativeError, double P, double N) {
+        return negativeError;
+    }
 }
@@ -31,6 +31,57 @@ public class WeightedRelativeAccuracyHeuristic extends AbstractHeuristic {
         return false;
     }
 
+    /**
+     * Whether the heuristic is convex in the p and n values of the confusion table.
+     * The heuristic equals p / (P + N) - (p + n) * P / (P + N)^2, which is linear and thus convex.
+     *
+     * @return True.
+     */
+    @Override
+    public boolean isConvex() {
+        return true;
+    }
+
+    /**
+     * Get the largest difference between the evaluation of a confusion table and the evaluation of an estimate of it.
+     * The heuristic equals (p * N - n * P) / (P + N)^2, so an error in p / P changes it by at most P * N / (P + N)^2
+     * times that error, and the same holds for an error in n / N.
+     *
+     * @param positiveError The largest error of the estimate of p / P.
+     * @param negativeError The largest error of the estimate of n / N.
+     * @param P The P value in the confusion table.
+     * @param N The N value in the confusion table.
+     * @return The error bound.
+     */
+    @Override
+    public double getErrorBound(double positiveError, double negativeError, double P, double N) {
+        return P * N / ((P + N) * (P + N)) * (positiveError + negativeError);
+    }
+
+    /**
+     * Get an upper bound on the evaluation of every refinement of a group with the given confusion table.
+     * The heuristic increases with p and decreases with n, so the bound is reached by the group's positives alone,
+     * which gives p / (P + N) * N / (P + N), see:
+     *
+     * S. Wrobel
+     * An Algorithm for Multi-relational Discovery of Subgroups, PKDD 1997.
+     *
+     * If the group has fewer positives than the minimum size, the refinement needs the fewest negatives that fill it up.
+     *
+     * @param p The p value in the confusion table of the group.
+     * @param n The n value in the confusion table of the group.
+     * @param P The P value in the confusion table.
+     * @param N The N value in the confusion table.
+     * @param minimumCovered The minimum amount of instances a refinement covers.
+     * @return The optimistic estimate.
+     */
+    @Override
+    public double getOptimisticEstimate(double p, double n, double P, double N, double minimumCovered) {
+        //Evaluate the bound the same way as a group would be evaluated, such that it is never off by a rounding error.
+        double negatives = Math.max(0, minimumCovered - p);
+        return p + negatives == 0 ? 0 : evaluate(p, negatives, P, N);
+    }
+
     /*@Override
     public HeuristicResult evaluate(SubGroup subGroup, Instance[] instance) {
         HeuristicResult result = getConfusionTable(subGroup, instance);
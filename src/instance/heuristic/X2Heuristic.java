@@ -33,4 +33,18 @@ public class X2Heuristic extends AbstractHeuristic {
     public boolean countsUnknownsInLEQ() {
         return true;
     }
+
+    /**
+     * Whether the heuristic is convex in the p and n values of the confusion table.
+     * The χ2 statistic of a 2x2 contingency table is convex in p and n, as shown in:
+     *
+     * S. Morishita, J. Sese
+     * Traversing Itemset Lattices with Statistical Metric Pruning, PODS 2000.
+     *
+     * @return True.
+     */
+    @Override
+    public boolean isConvex() {
+        return true;
+    }
 }
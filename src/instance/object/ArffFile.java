@@ -1,6 +1,8 @@
 package instance.object;
 
 import instance.attribute.AbstractAttribute;
+import instance.column.AbstractColumn;
+import instance.extent.Extent;
 
 import java.util.List;
 
@@ -8,34 +10,51 @@ import java.util.List;
  * Object representing the complete dataset.
  */
 public class ArffFile {
+    //The value of the target attribute that denotes the positive class.
+    public static final String POSITIVE_VALUE = "1";
+
     //values representing the data within an arff file.
     private final AbstractAttribute[] attributes;
-    private final Instance[] instances;
+    private final AbstractColumn[] columns;
     private final String relation;
     private final int target;
+    private final int instanceCount;
+
+    //Bitmap of the instances of which the target value is the positive class, and the size of that class.
+    private final Extent positives;
+    private final int positiveCount;
 
     /**
      * Create the arff dataset.
      *
      * @param attributeList The list of attributes in the dataset.
-     * @param instanceList The list of instances in the dataset.
+     * @param columnList The list of columns holding the values of the attributes, in attribute order.
      * @param relation The name of the relation.
      * @param target The id of the target attribute.
      */
-    public ArffFile(List<AbstractAttribute> attributeList, List<Instance> instanceList, String relation, int target) {
-        this.attributes = new AbstractAttribute[attributeList.size()];
-        for(int i = 0; i < attributeList.size(); i++) {
-            this.attributes[i] = attributeList.get(i);
-        }
-
-        this.instances = new Instance[instanceList.size()];
-        for(int i = 0; i < instanceList.size(); i++) {
-            this.instances[i] = instanceList.get(i);
-        }
+    public ArffFile(List<AbstractAttribute> attributeList, List<AbstractColumn> columnList, String relation, int target) {
+        this.attributes = attributeList.toArray(new AbstractAttribute[attributeList.size()]);
+        this.columns = columnList.toArray(new AbstractColumn[columnList.size()]);
+        this.instanceCount = columns.length == 0 ? 0 : columns[0].size();
 
         //Set the target attribute index.
         this.target = target;
 
+        //Encode the target once, such that the search only has to test bits.
+        long[] positiveWords = new long[(instanceCount + 63) >>> 6];
+        int positiveCode = target < 0 || columns.length == 0 ? -1 : columns[target].indexOf(POSITIVE_VALUE);
+        int count = 0;
+        if(positiveCode != -1) {
+            for(int row = 0; row < instanceCount; row++) {
+                if(columns[target].getCode(row) == positiveCode) {
+                    positiveWords[row >>> 6] |= 1L << row;
+                    count++;
+                }
+            }
+        }
+        this.positives = Extent.of(positiveWords, instanceCount);
+        this.positiveCount = count;
+
         //Set the dataset name.
         this.relation = relation;
     }
@@ -50,12 +69,60 @@ public class ArffFile {
     }
 
     /**
-     * Get the list of instances.
+     * Get the column holding the values of the given attribute.
+     *
+     * @param attribute The attribute.
+     * @return The column of the attribute.
+     */
+    public AbstractColumn getColumn(AbstractAttribute attribute) {
+        return columns[attribute.getId()];
+    }
+
+    /**
+     * Get the amount of instances.
+     *
+     * @return The amount of instances.
+     */
+    public int getInstanceCount() {
+        return instanceCount;
+    }
+
+    /**
+     * Get a view of the instance at the given index.
+     *
+     * @param row The index of the instance.
+     * @return The instance.
+     */
+    public Instance getInstance(int row) {
+        return new Instance(this, row);
+    }
+
+    /**
+     * Check whether the target value of the instance is the positive class.
+     *
+     * @param row The index of the instance.
+     * @return True if the target value is the positive class, false otherwise.
+     */
+    public boolean isPositive(int row) {
+        return positives.contains(row);
+    }
+
+    /**
+     * Get the extent of the instances of which the target value is the positive class.
+     *
+     * @return The extent of the positive instances.
+     */
+    public Extent getPositives() {
+        return positives;
+    }
+
+    /**
+     * Get the amount of instances of which the target value is the positive class.
      *
-     * @return The list of instances.
+     * @return The amount of positive instances, the P value in the confusion table.
      */
-    public Instance[] getInstances() {
-        return instances;
+    public int getPositiveCount() {
+        return positiveCount;
     }
 
     /**
@@ -1,7 +1,5 @@
 package instance.object;
 
-import java.util.HashMap;
-
 /**
  * Evaluation metric used to have dynamic comparisons between instances, based on our needs.
  */
@@ -13,16 +11,8 @@ public enum EvaluationMetric {
         }
 
         @Override
-        public boolean compare(String left, String right) {
-            double leftValue, rightValue;
-            if(valueMap.containsKey(left) && valueMap.containsKey(right)) {
-                leftValue = valueMap.get(left);
-                rightValue = valueMap.get(right);
-
-                return leftValue == rightValue;
-            } else {
-                return left.equals(right);
-            }
+        public boolean compare(double left, double right) {
+            return left == right;
         }
 
         /**
@@ -33,7 +23,7 @@ public enum EvaluationMetric {
          * @return Whether we evaluate true or false.
          */
         @Override
-        public boolean compareStrict(String left, String right) {
+        public boolean compareStrict(double left, double right) {
             return compare(left, right);
         }
     }, GTEQ {
@@ -43,35 +33,13 @@ public enum EvaluationMetric {
         }
 
         @Override
-        public boolean compare(String left, String right) {
-            double leftValue, rightValue;
-            if(!valueMap.containsKey(left)) {
-                valueMap.put(left, Double.parseDouble(left));
-            }
-            if(!valueMap.containsKey(right)) {
-                valueMap.put(right, Double.parseDouble(right));
-            }
-
-            leftValue = valueMap.get(left);
-            rightValue = valueMap.get(right);
-
-            return leftValue >= rightValue;
+        public boolean compare(double left, double right) {
+            return left >= right;
         }
 
         @Override
-        public boolean compareStrict(String left, String right) {
-            double leftValue, rightValue;
-            if(!valueMap.containsKey(left)) {
-                valueMap.put(left, Double.parseDouble(left));
-            }
-            if(!valueMap.containsKey(right)) {
-                valueMap.put(right, Double.parseDouble(right));
-            }
-
-            leftValue = valueMap.get(left);
-            rightValue = valueMap.get(right);
-
-            return leftValue > rightValue;
+        public boolean compareStrict(double left, double right) {
+            return left > right;
         }
     }, LTEQ {
         @Override
@@ -80,40 +48,16 @@ public enum EvaluationMetric {
         }
 
         @Override
-        public boolean compare(String left, String right) {
-            double leftValue, rightValue;
-            if(!valueMap.containsKey(left)) {
-                valueMap.put(left, Double.parseDouble(left));
-            }
-            if(!valueMap.containsKey(right)) {
-                valueMap.put(right, Double.parseDouble(right));
-            }
-
-            leftValue = valueMap.get(left);
-            rightValue = valueMap.get(right);
-
-            return leftValue <= rightValue;
+        public boolean compare(double left, double right) {
+            return left <= right;
         }
 
         @Override
-        public boolean compareStrict(String left, String right) {
-            double leftValue, rightValue;
-            if(!valueMap.containsKey(left)) {
-                valueMap.put(left, Double.parseDouble(left));
-            }
-            if(!valueMap.containsKey(right)) {
-                valueMap.put(right, Double.parseDouble(right));
-            }
-
-            leftValue = valueMap.get(left);
-            rightValue = valueMap.get(right);
-
-            return leftValue < rightValue;
+        public boolean compareStrict(double left, double right) {
+            return left < right;
         }
     };
 
-    private static HashMap<String, Double> valueMap = new HashMap<>();
-
     /**
      * Get the string representation.
      * @return The evaluation metric in comparator form.
@@ -128,7 +72,7 @@ public enum EvaluationMetric {
      * @param right The right hand value.
      * @return Whether we evaluate true or false.
      */
-    public abstract boolean compare(String left, String right);
+    public abstract boolean compare(double left, double right);
 
     /**
      * Compare the left hand side with the right hand side, which depends on the metric used. Uses a strict comparison.
@@ -137,7 +81,7 @@ public enum EvaluationMetric {
      * @param right The right hand value.
      * @return Whether we evaluate true or false.
      */
-    public abstract boolean compareStrict(String left, String right);
+    public abstract boolean compareStrict(double left, double right);
 
     /**
      * Get the evaluation metrics we should look at for a specific type of attribute.
@@ -1,7 +1,8 @@
 package instance.object;
 
-import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.TreeSet;
 
 /**
@@ -9,6 +10,13 @@ import java.util.TreeSet;
  */
 public class FixedSizeGroupCollection {
     private final TreeSet<Group> bestGroups = new TreeSet<>();
+
+    //The best groups per set of conditions, which are exact duplicates of each other.
+    private final Map<GroupKey, TreeSet<Group>> duplicates = new HashMap<>();
+
+    //The best groups per structure and evaluation, as a group can only replace a group with the same attributes and
+    //metrics and the same evaluation.
+    private final Map<GroupKey, Map<Double, TreeSet<Group>>> structures = new HashMap<>();
     private final boolean checkValue;
     private final int size;
     private double worstResult;
@@ -41,20 +49,28 @@ public class FixedSizeGroupCollection {
         Action action = Action.ADD;
         Group replace = null;
 
-        //Check whether we have something similar.
-        for(Group group : bestGroups) {
-            //We don't want the subgroup to be an exact duplicate to one of the groups in here.
-            if(candidate.isDuplicateOf(group, true, false)) {
-                //Abort.
-                action = Action.ABORT;
-                break;
+        //Check whether we have something similar, in the order of the best groups. An exact duplicate is found with a
+        //single lookup, and only the groups with the same structure and evaluation can be replaced by the candidate.
+        Group duplicate = first(duplicates.get(GroupKey.of(candidate)));
+        if(!checkValue) {
+            TreeSet<Group> similarGroups = getSimilarGroups(GroupKey.structureOf(candidate), candidate);
+            for(Group group : similarGroups != null ? similarGroups : Collections.<Group>emptySet()) {
+                //The duplicate comes first, so the candidate is dropped instead.
+                if(duplicate != null && duplicate.compareTo(group) <= 0) {
+                    break;
+                }
+                if(candidate.isMoreSpecificThan(group)) {
+                    replace = group;
+                    action = Action.REPLACE;
+                    break;
+                }
             }
+        }
 
-            if(!checkValue && candidate.getResult().getEvaluationValue() == group.getResult().getEvaluationValue() && candidate.isMoreSpecificThan(group)) {
-                replace = group;
-                action = Action.REPLACE;
-                break;
-            }
+        //We don't want the subgroup to be an exact duplicate to one of the groups in here.
+        if(action != Action.REPLACE && duplicate != null) {
+            //Abort.
+            action = Action.ABORT;
         }
 
         //Based on the action, do what needs to be done.
@@ -63,24 +79,93 @@ public class FixedSizeGroupCollection {
                 return;
             case REPLACE:
                 //Replace the worst element.
-                bestGroups.remove(replace);
-                bestGroups.add(candidate);
+                remove(replace);
+                insert(candidate);
                 break;
             default:
                 //Add it to the list.
                 if(bestGroups.size() < size) {
                     //Just add it.
-                    bestGroups.add(candidate);
+                    insert(candidate);
                 } else {
                     //Remove the worst performing, and add the candidate.
-                    bestGroups.pollLast();
-                    bestGroups.add(candidate);
+                    remove(bestGroups.last());
+                    insert(candidate);
                 }
         }
 
         worstResult = bestGroups.last().getResult().getEvaluationValue();
     }
 
+    /**
+     * Add the group to the best groups, to its duplicates and to the groups with its structure and evaluation.
+     *
+     * @param group The group to add.
+     */
+    private void insert(Group group) {
+        bestGroups.add(group);
+        duplicates.computeIfAbsent(GroupKey.of(group), key -> new TreeSet<>()).add(group);
+        structures.computeIfAbsent(GroupKey.structureOf(group), key -> new HashMap<>()).computeIfAbsent(getEvaluation(group), key -> new TreeSet<>()).add(group);
+    }
+
+    /**
+     * Remove the group from the best groups, from its duplicates and from the groups with its structure and evaluation.
+     *
+     * @param group The group to remove.
+     */
+    private void remove(Group group) {
+        bestGroups.remove(group);
+        GroupKey key = GroupKey.of(group);
+        TreeSet<Group> duplicateGroups = duplicates.get(key);
+        duplicateGroups.remove(group);
+        if(duplicateGroups.isEmpty()) {
+            duplicates.remove(key);
+        }
+
+        GroupKey structure = GroupKey.structureOf(group);
+        Map<Double, TreeSet<Group>> evaluations = structures.get(structure);
+        TreeSet<Group> similarGroups = evaluations.get(getEvaluation(group));
+        similarGroups.remove(group);
+        if(similarGroups.isEmpty()) {
+            evaluations.remove(getEvaluation(group));
+            if(evaluations.isEmpty()) {
+                structures.remove(structure);
+            }
+        }
+    }
+
+    /**
+     * Get the best groups with the given structure and the same evaluation as the group.
+     *
+     * @param structure The key of the structure.
+     * @param group The group of which the evaluation is used.
+     * @return The groups in the order of the best groups, or null if there are none.
+     */
+    private TreeSet<Group> getSimilarGroups(GroupKey structure, Group group) {
+        Map<Double, TreeSet<Group>> evaluations = structures.get(structure);
+        return evaluations == null ? null : evaluations.get(getEvaluation(group));
+    }
+
+    /**
+     * Get the evaluation of the group as a key, where 0 and -0 are the same key, as they are equal evaluations.
+     *
+     * @param group The group.
+     * @return The evaluation.
+     */
+    private static Double getEvaluation(Group group) {
+        return group.getResult().getEvaluationValue() + 0.0;
+    }
+
+    /**
+     * Get the first group of the set.
+     *
+     * @param groups The groups, or null if there are none.
+     * @return The first group, or null if there is none.
+     */
+    private static Group first(TreeSet<Group> groups) {
+        return groups == null ? null : groups.first();
+    }
+
     /**
      * Get the worst value in this list.
      *
@@ -90,6 +175,15 @@ public class FixedSizeGroupCollection {
         return worstResult;
     }
 
+    /**
+     * Get the amount of groups in this list.
+     *
+     * @return The amount of groups, which is at most the size of the list.
+     */
+    public int size() {
+        return bestGroups.size();
+    }
+
     /**
      * Helper enum class.
      */
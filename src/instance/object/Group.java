@@ -1,10 +1,11 @@
 package instance.object;
 
 import instance.attribute.AbstractAttribute;
+import instance.column.AbstractColumn;
+import instance.column.NumericColumn;
+import instance.extent.Extent;
 import instance.result.HeuristicResult;
 
-import java.lang.reflect.Member;
-
 /**
  * Object representing a (sub)group.
  */
@@ -14,40 +15,62 @@ public class Group implements Comparable<Group> {
     private final String value;
     private final EvaluationMetric metric;
 
+    //The column of the attribute, with the dictionary code and parsed value of the cutoff value.
+    private final AbstractColumn column;
+    private final NumericColumn numericColumn;
+    private final int code;
+    private final double threshold;
+
     //The seed this group uses, if null > no seed used.
     private final Group seed;
 
     //The evaluation scores for this specific group.
     private HeuristicResult result;
 
+    //The instances covered by this group and its seeds, and the instances for which that is unknown.
+    //Both are materialized on first use, as most evaluated groups are never refined.
+    private Extent extent;
+    private Extent unknownExtent;
+
+    //The instances covered by this group and its seeds as an array, materialized when the group is refined.
+    private int[] rows;
+
     //How many seeds this group has recursively.
     private final int seeds;
 
+    //The string representation of this group and its seeds, which is built once as groups with equal evaluations are
+    //ordered by it.
+    private String description;
+
     /**
      * Create a group without a seed, given its characteristics.
      *
-     * @param attribute The attribute the group is based on.
-     * @param value The cutoff value to use.
+     * @param column The column of the attribute the group is based on.
+     * @param code The dictionary code of the cutoff value to use.
      * @param metric The comparison mode to use, which is ==, <= or >=.
      */
-    public Group(AbstractAttribute attribute, String value, EvaluationMetric metric) {
-        this(attribute, value, metric, null);
+    public Group(AbstractColumn column, int code, EvaluationMetric metric) {
+        this(column, code, metric, null);
     }
 
     /**
      * Create a group with a seed, given its characteristics.
      *
-     * @param attribute The attribute the group is based on.
-     * @param value The cutoff value to use.
+     * @param column The column of the attribute the group is based on.
+     * @param code The dictionary code of the cutoff value to use.
      * @param metric The comparison mode to use, which is ==, <= or >=.
      * @param seed The group used as a seed.
      */
-    public Group(AbstractAttribute attribute, String value, EvaluationMetric metric, Group seed) {
-        if(metric != EvaluationMetric.EQ && attribute.getType() != Type.NUMERIC) {
+    public Group(AbstractColumn column, int code, EvaluationMetric metric, Group seed) {
+        if(metric != EvaluationMetric.EQ && column.getAttribute().getType() != Type.NUMERIC) {
             throw new IllegalArgumentException("Only the NUMERIC type supports the GTEQ or LTEQ metrics.");
         }
-        this.attribute = attribute;
-        this.value = value;
+        this.attribute = column.getAttribute();
+        this.column = column;
+        this.numericColumn = column instanceof NumericColumn ? (NumericColumn) column : null;
+        this.code = code;
+        this.value = column.getLabel(code);
+        this.threshold = numericColumn != null ? numericColumn.getLabelValue(code) : Double.NaN;
         this.metric = metric;
         this.seed = seed;
         this.seeds = seed == null ? 0 : seed.seeds + 1;
@@ -71,6 +94,15 @@ public class Group implements Comparable<Group> {
         return value;
     }
 
+    /**
+     * Get the dictionary code of the cutoff value this group uses.
+     *
+     * @return The dictionary code of the cutoff value.
+     */
+    public int getCode() {
+        return code;
+    }
+
     /**
      * Get the evaluation metric this group uses for its cutoff process.
      *
@@ -106,34 +138,102 @@ public class Group implements Comparable<Group> {
         return seed;
     }
 
+    /**
+     * Get the column of the attribute this group uses for its cutoff process.
+     *
+     * @return The column.
+     */
+    public AbstractColumn getColumn() {
+        return column;
+    }
+
+    /**
+     * Get the extent of the condition of this group alone, ignoring the seed.
+     *
+     * @return The extent of the instances of which the known value satisfies the condition.
+     */
+    public Extent getConditionExtent() {
+        return column.getConditionExtent(code, metric);
+    }
+
+    /**
+     * Get the extent of the instances for which {@link #containsInstance(int)} is true.
+     *
+     * @return The extent of the seed intersected with the extent of the condition.
+     */
+    public Extent getExtent() {
+        if(extent == null) {
+            extent = seed == null ? getConditionExtent() : seed.getExtent().and(getConditionExtent());
+        }
+        return extent;
+    }
+
+    /**
+     * Get the instances for which {@link #containsInstance(int)} is true, such that refinements of this group only
+     * have to go over the instances of this group.
+     *
+     * @return The indices of the covered instances, in increasing order.
+     */
+    public int[] getRows() {
+        if(rows == null) {
+            rows = getExtent().toArray();
+        }
+        return rows;
+    }
+
+    /**
+     * Get the extent of the instances for which {@link #containsInstance(int)} is unknown.
+     *
+     * @return The instances with a missing value for this group's attribute or for one of the seeds' attributes.
+     */
+    public Extent getUnknownExtent() {
+        if(unknownExtent == null) {
+            unknownExtent = seed == null ? column.getMissingExtent() : seed.getUnknownExtent().or(column.getMissingExtent());
+        }
+        return unknownExtent;
+    }
+
     /**
      * Check if the instance belongs to the group, and the seed.
      *
-     * @param instance The instance to evaluate.
+     * @param row The index of the instance to evaluate.
      * @return True if the instance's attribute value is in the correct range of this group and the seed, false otherwise.
      */
-    public ContainsHelper containsInstance(Instance instance) {
+    public ContainsHelper containsInstance(int row) {
         //If the value is unknown, we want to handle it is an unknown state.
-        if(instance.getValue(attribute).equals("?")) {
+        if(column.isMissing(row)) {
             return ContainsHelper.UNKNOWN;
         }
 
         //Get the contains instance state of the seed, which is true on default, as the entire data set contains everything.
         ContainsHelper seedContains = ContainsHelper.TRUE;
         if(seed != null) {
-            seedContains = seed.containsInstance(instance);
+            seedContains = seed.containsInstance(row);
         }
 
         //Determine how we want to use the seed value.
         if(seedContains == ContainsHelper.TRUE) {
             //Check whether this contains the seed.
-            return metric.compare(instance.getValue(attribute), value) ? ContainsHelper.TRUE : ContainsHelper.FALSE;
+            return matches(row) ? ContainsHelper.TRUE : ContainsHelper.FALSE;
         } else {
             //Return the seed value.
             return seedContains;
         }
     }
 
+    /**
+     * Check whether the known value of the instance satisfies the condition of this group, ignoring the seed.
+     *
+     * @param row The index of the instance to evaluate.
+     * @return True if the value satisfies the condition, false otherwise.
+     */
+    private boolean matches(int row) {
+        if(metric == EvaluationMetric.EQ) {
+            return column.getCode(row) == code;
+        }
+        return metric.compare(numericColumn.getValue(row), threshold);
+    }
+
     /**
      * Check if the attribute is already included in this group, with the same metric!
      *
@@ -181,8 +281,8 @@ public class Group implements Comparable<Group> {
                 comparator = comparator.seed;
             }
             //Compare the values with the correct metric.
-            if(!seed.value.equals(comparator.value)) {
-                if(seed.getMetric().compareStrict(seed.value, comparator.value)) {
+            if(seed.code != comparator.code) {
+                if(seed.getMetric().compareStrict(seed.threshold, comparator.threshold)) {
                     thisStricter = true;
                 } else {
                     groupStricter = true;
@@ -227,7 +327,7 @@ public class Group implements Comparable<Group> {
         boolean foundMatch = false;
         Group groupSeed = group;
         while(groupSeed != null && !foundMatch) {
-            if(this.attribute.getId() == groupSeed.attribute.getId() && this.metric == groupSeed.metric && (!checkValue || this.value.equals(groupSeed.value))) {
+            if(this.attribute.getId() == groupSeed.attribute.getId() && this.metric == groupSeed.metric && (!checkValue || this.code == groupSeed.code)) {
                 if(debug) System.out.println("\t\t Match between " + this.toSimpleString() + " and " + groupSeed);
                 foundMatch = true;
             }
@@ -257,13 +357,12 @@ public class Group implements Comparable<Group> {
      */
     @Override
     public String toString() {
-        String result = this.toSimpleString();
-        Group seed = this.getSeed();
-        while(seed != null) {
-            result = seed.toSimpleString() + " \u2227 " + result;
-            seed = seed.getSeed();
+        //The conditions of the group and its seeds are final, so its string only has to be built once, reusing the
+        //string of the seed.
+        if(description == null) {
+            description = seed == null ? toSimpleString() : seed.toString() + " \u2227 " + toSimpleString();
         }
-        return result;
+        return description;
     }
 
     /**
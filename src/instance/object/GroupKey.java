@@ -0,0 +1,162 @@
+package instance.object;
+
+import instance.column.AbstractColumn;
+
+import java.util.Arrays;
+
+/**
+ * The identity of a group as the set of its conditions, which does not depend on the order in which the conditions
+ * were added. Two groups with equal keys cover the same instances, such as a ∧ b and b ∧ a.
+ */
+public final class GroupKey {
+    //The encoded conditions in increasing order.
+    private final long[] conditions;
+    private final int hash;
+
+    /**
+     * Create a key from the encoded conditions.
+     *
+     * @param conditions The encoded conditions in increasing order.
+     */
+    private GroupKey(long[] conditions) {
+        this.conditions = conditions;
+        this.hash = Arrays.hashCode(conditions);
+    }
+
+    /**
+     * Get the key of the group, which consists of the conditions of the group and all of its seeds.
+     *
+     * @param group The group.
+     * @return The key of the group.
+     */
+    public static GroupKey of(Group group) {
+        int count = 0;
+        for(Group current = group; current != null; current = current.getSeed()) {
+            count++;
+        }
+        long[] conditions = new long[count];
+        int i = 0;
+        for(Group current = group; current != null; current = current.getSeed()) {
+            conditions[i++] = encode(current.getColumn(), current.getCode(), current.getMetric());
+        }
+        Arrays.sort(conditions);
+        return new GroupKey(conditions);
+    }
+
+    /**
+     * Get the key of the structure of the group, which consists of the attributes and metrics of the conditions of the
+     * group and all of its seeds, ignoring their values. Groups with equal structure keys are duplicates of each other
+     * when the values are not checked.
+     *
+     * @param group The group.
+     * @return The key of the structure of the group.
+     */
+    public static GroupKey structureOf(Group group) {
+        int count = 0;
+        for(Group current = group; current != null; current = current.getSeed()) {
+            count++;
+        }
+        long[] conditions = new long[count];
+        int i = 0;
+        for(Group current = group; current != null; current = current.getSeed()) {
+            conditions[i++] = encode(current.getColumn(), 0, current.getMetric());
+        }
+        Arrays.sort(conditions);
+        return new GroupKey(conditions);
+    }
+
+    /**
+     * Get the key of the group without any seed.
+     *
+     * @param column The column of the attribute of the condition.
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode to use.
+     * @return The key of the group with the single condition.
+     */
+    public static GroupKey of(AbstractColumn column, int code, EvaluationMetric metric) {
+        return new GroupKey(new long[]{encode(column, code, metric)});
+    }
+
+    /**
+     * Get the key of the refinement of this group with the given condition, without creating the group.
+     *
+     * @param column The column of the attribute of the condition.
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode to use.
+     * @return The key of the refinement.
+     */
+    public GroupKey with(AbstractColumn column, int code, EvaluationMetric metric) {
+        long condition = encode(column, code, metric);
+        long[] refined = new long[conditions.length + 1];
+
+        //Insert the condition at its place in the order.
+        int index = 0;
+        while(index < conditions.length && conditions[index] < condition) {
+            refined[index] = conditions[index];
+            index++;
+        }
+        refined[index] = condition;
+        System.arraycopy(conditions, index, refined, index + 1, conditions.length - index);
+        return new GroupKey(refined);
+    }
+
+    /**
+     * Get the key of the group without the given condition, which is the key of the seed from which the group is
+     * generated with the condition as the last one.
+     *
+     * @param column The column of the attribute of the condition.
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode to use.
+     * @return The key without the condition, or this key if it does not contain the condition.
+     */
+    public GroupKey without(AbstractColumn column, int code, EvaluationMetric metric) {
+        int index = Arrays.binarySearch(conditions, encode(column, code, metric));
+        if(index < 0) {
+            return this;
+        }
+        long[] reduced = new long[conditions.length - 1];
+        System.arraycopy(conditions, 0, reduced, 0, index);
+        System.arraycopy(conditions, index + 1, reduced, index, reduced.length - index);
+        return new GroupKey(reduced);
+    }
+
+    /**
+     * Get the amount of conditions in the key.
+     *
+     * @return The amount of conditions.
+     */
+    public int size() {
+        return conditions.length;
+    }
+
+    /**
+     * Encode a condition as a single number, ordered by attribute, code and metric.
+     *
+     * @param column The column of the attribute of the condition.
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode to use.
+     * @return The encoded condition.
+     */
+    private static long encode(AbstractColumn column, int code, EvaluationMetric metric) {
+        return (long) column.getAttribute().getId() << 34 | (long) code << 2 | metric.ordinal();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GroupKey)) return false;
+
+        GroupKey that = (GroupKey) o;
+        return hash == that.hash && Arrays.equals(conditions, that.conditions);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupKey" + Arrays.toString(conditions);
+    }
+}
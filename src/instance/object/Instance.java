@@ -2,95 +2,67 @@ package instance.object;
 
 import instance.attribute.AbstractAttribute;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
+/**
+ * View of a single instance within the dataset.
+ */
 public class Instance {
-    //The list of values of the instance.
-    private final String[] values;
-    private final int target;
+    //The dataset the instance belongs to, and its index within the dataset.
+    private final ArffFile file;
+    private final int row;
 
     /**
-     * Create an instance.
+     * Create an instance view.
      *
-     * @param line The line representing the instance.
-     * @param target The id of the target attribute.
+     * @param file The dataset the instance belongs to.
+     * @param row The index of the instance.
      */
-    public Instance(String line, int target) {
-        //Parse the string manually instead of splitting it, as the data containsInstance some annoying inputs that split cannot handle.
-        //List<String> components = parseString(line);
-
-        //Convert to array and set.
-        //this.values = components.toArray(new String[components.size()]);
-
-        this.values = line.split(",");
-
-        //Set the target index.
-        this.target = target;
+    public Instance(ArffFile file, int row) {
+        this.file = file;
+        this.row = row;
     }
 
     /**
-     * Parse the string character by character.
+     * Get the index of the instance within the dataset.
      *
-     * @param line The string to parse.
-     * @return A list of the values for all the attributes.
+     * @return The index of the instance.
      */
-    private List<String> parseString(String line) {
-        List<String> components = new ArrayList<>();
-        boolean skipCommas = false;
-        String component = "";
-        for(char c : line.toCharArray()) {
-            if(skipCommas) {
-                component += c;
-                if(c == '\'') {
-                    skipCommas = false;
-                }
-            } else {
-                if(c == ',') {
-                    components.add(component);
-                    component = "";
-                    continue;
-                }
-
-                component += c;
-                if(c == '\'') {
-                    skipCommas = true;
-                }
-            }
-        }
-
-        //Add the remaining component.
-        components.add(component);
-        return components;
+    public int getRow() {
+        return row;
     }
 
     /**
      * Get the value for the given attribute.
      *
      * @param attribute The attribute we want the value of.
-     * @return The value in the string array at the index of the attribute.
+     * @return The value as it occurred in the arff file.
      */
     public String getValue(AbstractAttribute attribute) {
-        return values[attribute.getId()];
+        return file.getColumn(attribute).getString(row);
     }
 
     /**
      * Get the value of the target attribute.
      *
-     * @return The value in the array at the target index.
+     * @return The value of the target attribute.
      */
     public String getTargetValue() {
-        return values[target];
+        return getValue(file.getAttributes()[file.getTarget()]);
     }
 
     /**
      * Convert the list to a string, without the parenthesis.
      *
-     * @return String representation of the array, with the parenthesis removed.
+     * @return String representation of the values, with the parenthesis removed.
      */
     @Override
     public String toString() {
-        return Arrays.toString(values).replaceAll("\\{|\\}","");
+        StringBuilder result = new StringBuilder("[");
+        for(AbstractAttribute attribute : file.getAttributes()) {
+            if(result.length() > 1) {
+                result.append(", ");
+            }
+            result.append(getValue(attribute));
+        }
+        return result.append("]").toString().replaceAll("\\{|\\}","");
     }
 }
@@ -1,12 +1,13 @@
 package instance.result;
 
+import instance.extent.Extent;
 import instance.heuristic.AbstractHeuristic;
 import instance.heuristic.SensitivityQualityMeasureHeuristic;
 import instance.heuristic.SpecificityQualityMeasureHeuristic;
 import instance.heuristic.X2Heuristic;
+import instance.object.ArffFile;
 import instance.object.EvaluationMetric;
 import instance.object.Group;
-import instance.object.Instance;
 
 /**
  * Object containing the heuristic result.
@@ -123,13 +124,59 @@ public class HeuristicResult {
      *
      * @param heuristic The heuristic function to use.
      * @param group The subgroup to evaluate.
-     * @param instances The instances within the arff file.
+     * @param data The arff file holding the instances.
      * @return An object containing all evaluation information.
      */
-    public static HeuristicResult evaluate(AbstractHeuristic heuristic, Group group, Instance[] instances) {
+    public static HeuristicResult evaluate(AbstractHeuristic heuristic, Group group, ArffFile data) {
+        return evaluate(heuristic, group, data, group.getConditionExtent());
+    }
+
+    /**
+     * Evaluate the instances given the heuristic and the subgroup, of which the extent of the condition is known.
+     *
+     * @param heuristic The heuristic function to use.
+     * @param group The subgroup to evaluate.
+     * @param data The arff file holding the instances.
+     * @param condition The extent of the condition of the group, ignoring the seed.
+     * @return An object containing all evaluation information.
+     */
+    public static HeuristicResult evaluate(AbstractHeuristic heuristic, Group group, ArffFile data, Extent condition) {
+        Extent positives = data.getPositives();
+        Extent missing = group.getColumn().getMissingExtent();
+        Group seed = group.getSeed();
+
+        //Count the covered and unknown instances, with bitwise operations on the extents.
+        int covered, coveredPositive, unknown, unknownPositive;
+        if(seed == null) {
+            covered = condition.cardinality();
+            coveredPositive = condition.andCardinality(positives);
+            unknown = missing.cardinality();
+            unknownPositive = missing.andCardinality(positives);
+        } else {
+            Extent seedExtent = seed.getExtent();
+            Extent seedUnknown = seed.getUnknownExtent();
+            covered = seedExtent.andCardinality(condition);
+            coveredPositive = seedExtent.andCardinality(condition, positives);
+            unknown = missing.orCardinality(seedUnknown);
+            unknownPositive = missing.orAndCardinality(seedUnknown, positives);
+        }
+        return evaluate(heuristic, group, ConfusionMatrix.of(data, covered, coveredPositive, unknown, unknownPositive));
+    }
+
+    /**
+     * Evaluate the subgroup given the heuristic, of which the instances have been counted already.
+     * The covered instances are those in the seed's extent and the extent of the condition, and the unknown instances
+     * are the seed's unknown instances together with the missing values of the attribute.
+     *
+     * @param heuristic The heuristic function to use.
+     * @param group The subgroup to evaluate.
+     * @param matrix The counts of the instances of the subgroup.
+     * @return An object containing all evaluation information.
+     */
+    public static HeuristicResult evaluate(AbstractHeuristic heuristic, Group group, ConfusionMatrix matrix) {
         //Get the confusion table.
         //Note here that the X2 and Sensitivity measures require that LTEQ also includes unknown cases, for some unknown reason... Ask Cortana.
-        HeuristicResult result = getConfusionTable(group, instances, heuristic.countsUnknownsInLEQ());
+        HeuristicResult result = getConfusionTable(group, matrix, heuristic.countsUnknownsInLEQ());
 
         //Evaluate the confusion table.
         double evaluation = heuristic.evaluate(result.getCoveredPositive(), result.getCoveredNegative(), result.getPositiveCount(), result.getNegativeCount());
@@ -145,56 +192,20 @@ public class HeuristicResult {
      * Get a heuristic result with the values of the confusion table set.
      *
      * @param group The group to use as cutoff.
-     * @param instances The list of instances that the confusion table should be build from.
+     * @param matrix The counts of the instances of the group.
      * @param countUnknownsOnLTEQ Whether we want to count unknown cases as part of the result when LTEQ is used.
      * @return Heuristic result with the values of the confusion table set.
      */
-    private static HeuristicResult getConfusionTable(Group group, Instance[] instances, boolean countUnknownsOnLTEQ) {
-        double coveredPositive = 0;
-        double coveredNegative = 0;
-        double positive = 0;
-        double negative = 0;
-        double unknown = 0;
-
-        for(Instance instance : instances) {
-            Group.ContainsHelper containsValue = group.containsInstance(instance);
-
-            //If we cannot evaluate the value for one of the attributes, just skip it.
-            if(containsValue == Group.ContainsHelper.UNKNOWN) {
-                if(countUnknownsOnLTEQ && group.getMetric() == EvaluationMetric.LTEQ) {
-                    if(instance.getTargetValue().equals("1")) {
-                        coveredPositive++;
-                    } else {
-                        coveredNegative++;
-                    }
-                }
-                unknown++;
-            }
-
-            //Global counting.
-            if(instance.getTargetValue().equals("1")) {
-                positive++;
-            } else {
-                negative++;
-            }
-
-            //Skip in case the value is unknown, as we will not be able to process that.
-            if(containsValue == Group.ContainsHelper.TRUE) {
-                if(instance.getTargetValue().equals("1")) {
-                    coveredPositive++;
-                } else {
-                    coveredNegative++;
-                }
-            }
+    private static HeuristicResult getConfusionTable(Group group, ConfusionMatrix matrix, boolean countUnknownsOnLTEQ) {
+        double coveredPositive = matrix.p;
+        double coveredNegative = matrix.n;
+
+        //If we cannot evaluate the value for one of the attributes, the instance is only covered in LTEQ mode.
+        if(countUnknownsOnLTEQ && group.getMetric() == EvaluationMetric.LTEQ) {
+            coveredPositive += matrix.up;
+            coveredNegative += matrix.un;
         }
 
-        /*Group seed;
-        if((seed = group.getSeed()) != null) {
-            //We want P and N to be the covered space in the subgroup.
-            positive = seed.getResult().getCoveredPositive();
-            negative = seed.getResult().getCoveredNegative();
-        }*/
-
-        return new HeuristicResult(coveredPositive, positive, coveredNegative, negative, unknown);
+        return new HeuristicResult(coveredPositive, matrix.P, coveredNegative, matrix.N, matrix.up + matrix.un);
     }
 }
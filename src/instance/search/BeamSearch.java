@@ -1,131 +1,590 @@
 package instance.search;
 
 import instance.attribute.AbstractAttribute;
+import instance.column.AbstractColumn;
+import instance.column.CodeCounts;
+import instance.column.NumericColumn;
+import instance.discretization.AbstractDiscretizer;
+import instance.discretization.CutPoints;
 import instance.heuristic.AbstractHeuristic;
 import instance.object.*;
-import instance.result.HeuristicResult;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
 
 /**
  * Class used for beam searches.
  */
 public class BeamSearch {
-    public static Group[][] search(ArffFile data, AbstractHeuristic heuristic, int searchWidth, int searchDepth, int minimumGroupSize, double maximumFraction, boolean checkValue, HashSet<String> blacklist) {
-        //Create the array that will contain all intermediary results.
-        Group[][] result = new Group[searchDepth][];
+    //The seed of the sample on which candidates are evaluated first, such that every run draws the same sample.
+    private static final long SAMPLE_SEED = 0;
 
-        //The list containing the best groups found.
-        FixedSizeGroupCollection bestGroups = new FixedSizeGroupCollection(searchWidth, checkValue);
+    public static Group[][] search(SearchContext context, AbstractHeuristic heuristic, int searchWidth, int searchDepth, int minimumGroupSize, double maximumFraction, boolean checkValue, HashSet<String> blacklist) {
+        return search(context, heuristic, searchWidth, searchDepth, minimumGroupSize, maximumFraction, checkValue, blacklist, new SearchOptions());
+    }
+
+    public static Group[][] search(SearchContext context, AbstractHeuristic heuristic, int searchWidth, int searchDepth, int minimumGroupSize, double maximumFraction, boolean checkValue, HashSet<String> blacklist, SearchOptions options) {
+        return search(context, Collections.singletonList(heuristic), searchWidth, searchDepth, minimumGroupSize, maximumFraction, checkValue, blacklist, options).get(0);
+    }
+
+    /**
+     * Do a beam search for every heuristic at once, with a separate beam per heuristic.
+     * The instances covered by a candidate are counted only once, for all beams that contain its seed, after which the
+     * counts are evaluated with each heuristic. The results are the same as those of separate searches.
+     *
+     * @param context The context of the search.
+     * @param heuristics The heuristic functions to use.
+     * @param searchWidth The width of the beams.
+     * @param searchDepth The amount of levels.
+     * @param minimumGroupSize The minimum size of a subgroup.
+     * @param maximumFraction The maximum fraction of the data set a subgroup without seed may cover.
+     * @param checkValue Whether the values are compared when checking the beams for duplicates.
+     * @param blacklist The names of the attributes that are not searched.
+     * @param options The search options.
+     * @return The results of every level, per heuristic, which are the best groups found so far if the budget of the
+     *         options has been spent.
+     */
+    public static List<Group[][]> search(SearchContext context, List<AbstractHeuristic> heuristics, int searchWidth, int searchDepth, int minimumGroupSize, double maximumFraction, boolean checkValue, HashSet<String> blacklist, SearchOptions options) {
+        return searchAnytime(context, heuristics, searchWidth, searchDepth, minimumGroupSize, maximumFraction, checkValue, blacklist, options).getResults();
+    }
+
+    /**
+     * Do a beam search for every heuristic at once, which stops when the budget of the options is spent.
+     * In anytime mode the seeds of every level are refined in order of their best position in any beam, and the best
+     * groups found so far are published to the progress listener of the options after every refinement task. The
+     * candidates are merged into the beams in the same order as without a budget, so the levels that are complete
+     * have the same groups as a search without budget.
+     *
+     * @param context The context of the search.
+     * @param heuristics The heuristic functions to use.
+     * @param searchWidth The width of the beams.
+     * @param searchDepth The amount of levels.
+     * @param minimumGroupSize The minimum size of a subgroup.
+     * @param maximumFraction The maximum fraction of the data set a subgroup without seed may cover.
+     * @param checkValue Whether the values are compared when checking the beams for duplicates.
+     * @param blacklist The names of the attributes that are not searched.
+     * @param options The search options.
+     * @return The best groups of every level per heuristic, together with the levels that are complete.
+     */
+    public static SearchProgress searchAnytime(SearchContext context, List<AbstractHeuristic> heuristics, int searchWidth, int searchDepth, int minimumGroupSize, double maximumFraction, boolean checkValue, HashSet<String> blacklist, SearchOptions options) {
+        ArffFile data = context.getData();
+        AbstractHeuristic[] heuristicArray = heuristics.toArray(new AbstractHeuristic[0]);
+
+        //The boundary point mode is only safe for convex heuristics.
+        boolean boundaryPointsOnly = false;
+        for(AbstractHeuristic heuristic : heuristicArray) {
+            if(options.isBoundaryPointsOnly() && !heuristic.isConvex()) {
+                System.out.println("[" + getCurrentTimeStamp() + "]: " + heuristic.getClass().getSimpleName() + " is not convex, generating all thresholds.");
+            }
+            boundaryPointsOnly |= options.isBoundaryPointsOnly() && heuristic.isConvex();
+        }
+
+        //Discretize the numeric attributes once, before the search starts.
+        CutPoints[] cutPoints = discretize(data, options.getDiscretizer(), blacklist);
+
+        //Candidates are evaluated on a sample before they are counted, unless the counts of the level are exact already.
+        StratifiedSample sample = null;
+        if(options.getSampleSize() > 0 && !options.isBatchedCounting()) {
+            sample = new StratifiedSample(data, options.getSampleSize(), 1 - options.getSampleConfidence(), SAMPLE_SEED);
+        }
+
+        //The attributes that are refined, which are all attributes except the target and those we don't care about.
+        List<AbstractAttribute> attributes = new ArrayList<>();
+        for(AbstractAttribute attribute : data.getAttributes()) {
+            if(!blacklist.contains(attribute.getName()) && attribute.getId() != data.getTarget()) {
+                attributes.add(attribute);
+            }
+        }
 
-        //For each level.
-        for(int level = 0; level < searchDepth; level++) {
-            System.out.println("[" + getCurrentTimeStamp() + "]: Current level: " + (level + 1));
+        //Create the arrays that will contain all intermediary results, and the lists containing the best groups found.
+        List<Group[][]> results = new ArrayList<>();
+        FixedSizeGroupCollection[] bestGroups = new FixedSizeGroupCollection[heuristicArray.length];
+        for(int h = 0; h < heuristicArray.length; h++) {
+            results.add(new Group[searchDepth][]);
+            bestGroups[h] = new FixedSizeGroupCollection(searchWidth, checkValue);
+        }
 
-            //A new beam, which will later be merged with the bestGroups one.
-            FixedSizeGroupCollection attributeBestGroups = new FixedSizeGroupCollection(searchWidth, checkValue);
+        //The budget is only spent in anytime mode, in which a level can end before all of its seeds are refined.
+        boolean anytime = options.isAnytime();
+        Budget budget = new Budget(options);
+        boolean[] completedLevels = new boolean[searchDepth];
 
-            //For each attribute.
-            for(AbstractAttribute attribute : data.getAttributes()) {
-                //Skip those attributes we don't care about.
-                if (blacklist.contains(attribute.getName())) {
+        ForkJoinPool pool = options.getThreads() > 1 ? new ForkJoinPool(options.getThreads()) : null;
+        try {
+            //For each level.
+            for(int level = 0; level < searchDepth; level++) {
+                if(budget.isSpent()) {
+                    //Levels that are not started have no groups.
+                    for(int h = 0; h < heuristicArray.length; h++) {
+                        results.get(h)[level] = new Group[0];
+                    }
                     continue;
                 }
+                System.out.println("[" + getCurrentTimeStamp() + "]: Current level: " + (level + 1));
+                long levelStart = System.nanoTime();
+
+                //Find the distinct seeds of all beams, of which the index per heuristic follows the order of its beam.
+                List<Group[]> seeds = new ArrayList<>();
+                int[][] seedIndices = getDistinctSeeds(bestGroups, seeds);
+
+                //The seeds are shared by all tasks, so their extents and instances are materialized before the tasks start.
+                for(Group[] copies : seeds) {
+                    for(Group seed : copies) {
+                        if(seed != null) {
+                            seed.getExtent();
+                            seed.getUnknownExtent();
+                            seed.getRows();
+                        }
+                    }
+                }
+
+                //The heuristics that refine a seed, per set of conditions, such that a conjunction that can be generated
+                //from several seeds is only generated from the seed that comes first in the merge.
+                Map<GroupKey, boolean[]> seedKeys = new HashMap<>();
+                for(Group[] copies : seeds) {
+                    for(int h = 0; h < heuristicArray.length; h++) {
+                        if(copies[h] != null) {
+                            seedKeys.computeIfAbsent(GroupKey.of(copies[h]), key -> new boolean[heuristicArray.length])[h] = true;
+                        }
+                    }
+                }
+
+                //Count the == conditions on all attributes for all seeds at once, from which all refinements are counted.
+                CodeCounts[][] levelCounts = options.isBatchedCounting() ? countLevel(data, seeds, attributes) : null;
+
+                //The evaluation a refinement has to reach to enter the beam of every heuristic, which only increases.
+                AtomicLongArray thresholds = new AtomicLongArray(heuristicArray.length);
+                for(int h = 0; h < heuristicArray.length; h++) {
+                    thresholds.set(h, Double.doubleToLongBits(bestGroups[h].size() == searchWidth ? bestGroups[h].getWorstResult() : Double.NEGATIVE_INFINITY));
+                }
+
+                //The error bounds of the sample hold for all candidates the level can generate at the same time.
+                StratifiedSample levelSample = null;
+                if(sample != null) {
+                    long candidates = 0;
+                    for(AbstractAttribute attribute : attributes) {
+                        candidates += (long) data.getColumn(attribute).getLabelCount() * EvaluationMetric.getValues(attribute.getType()).length;
+                    }
+                    levelSample = sample.forCandidates(candidates * seeds.size());
+                    System.out.println("[" + getCurrentTimeStamp() + "]: " + levelSample);
+                }
+
+                //Create a task for every distinct seed and attribute, which are all started at once when running in parallel.
+                SeedSearch[][] tasks = new SeedSearch[attributes.size()][seeds.size()];
+                for(int i = 0; i < attributes.size(); i++) {
+                    AbstractAttribute attribute = attributes.get(i);
+                    for(int j = 0; j < seeds.size(); j++) {
+                        Group[] copies = seeds.get(j);
+                        boolean[] refines = new boolean[heuristicArray.length];
+                        for(int h = 0; h < heuristicArray.length; h++) {
+                            refines[h] = copies[h] != null || seedIndices[h].length == 1 && seedIndices[h][0] == j;
+                        }
+                        tasks[i][j] = new SeedSearch(context, heuristicArray, attribute, copies, refines, seedKeys, levelCounts == null ? null : levelCounts[j][i], thresholds, minimumGroupSize, maximumFraction, boundaryPointsOnly, cutPoints[attribute.getId()], levelSample, searchWidth);
+                        if(pool != null && !anytime) {
+                            pool.execute(tasks[i][j]);
+                        }
+                    }
+                }
+
+                //New beams, which will later be merged with the bestGroups ones.
+                FixedSizeGroupCollection[] attributeBestGroups = new FixedSizeGroupCollection[heuristicArray.length];
+                for(int h = 0; h < heuristicArray.length; h++) {
+                    attributeBestGroups[h] = new FixedSizeGroupCollection(searchWidth, checkValue);
+                }
+                SearchStatistics statistics = new SearchStatistics();
+                if(levelCounts != null) {
+                    statistics.addScannedRows(data.getInstanceCount());
+                }
+                if(levelSample != null) {
+                    statistics.addErrorProbability(levelSample.getErrorProbability());
+                }
+
+                boolean complete = true;
+                if(anytime) {
+                    complete = runAnytime(tasks, seedIndices, attributeBestGroups, statistics, thresholds, pool, options, budget, results, bestGroups, level, completedLevels, searchWidth, checkValue);
+                } else {
+                    //Merge the candidates in the same order as a sequential search, such that the results are identical.
+                    for(SeedSearch[] attributeTasks : tasks) {
+                        Candidates[][] candidates = new Candidates[attributeTasks.length][];
+                        for(int j = 0; j < attributeTasks.length; j++) {
+                            candidates[j] = pool != null ? attributeTasks[j].join() : attributeTasks[j].invoke();
+                            statistics.add(attributeTasks[j].getStatistics());
+                        }
+                        mergeAttribute(candidates, seedIndices, attributeBestGroups, thresholds, searchWidth);
+                    }
+                    budget.addEvaluatedCandidates(statistics.getEvaluatedCandidates());
+                }
+                context.addStatistics(statistics);
+                if(!complete) {
+                    System.out.println("[" + getCurrentTimeStamp() + "]: The budget is spent, level " + (level + 1) + " keeps the best groups found so far.");
+                }
+                System.out.println("[" + getCurrentTimeStamp() + "]: " + statistics);
+
+                //Report the throughput of the level, which shows the cost of reading the instances when they are on disk.
+                //Only the instances read by the tasks that ran are counted, so a level that ends early reports fewer rows.
+                double seconds = Math.max(System.nanoTime() - levelStart, 1) / 1e9;
+                System.out.println("[" + getCurrentTimeStamp() + "]: Level " + (level + 1) + " processed " + statistics.getScannedRows() + " rows in "
+                        + String.format("%.3f", seconds) + "s, " + String.format("%.0f", statistics.getScannedRows() / seconds) + " rows per second.");
+
+                for(int h = 0; h < heuristicArray.length; h++) {
+                    //Add the results of this level's results to the best groups list.
+                    for(Group group : attributeBestGroups[h].toArray()) {
+                        bestGroups[h].add(group);
+                    }
+
+                    //Add the level's results to the result array.
+                    results.get(h)[level] = bestGroups[h].toArray();
+                }
+                completedLevels[level] = complete;
+            }
+        } finally {
+            if(pool != null) {
+                pool.shutdown();
+            }
+        }
 
-                //Skip the target.
-                if(attribute.getId() != data.getTarget()) {
-                    //Get the collection of best results for the group.
-                    attributeSearch(data, heuristic, attribute, minimumGroupSize, maximumFraction, bestGroups.toArray(), attributeBestGroups);
+        SearchProgress progress = new SearchProgress(results, completedLevels, true, budget.getEvaluatedCandidates(), budget.getElapsedMillis());
+        if(options.getProgressListener() != null) {
+            options.getProgressListener().accept(progress);
+        }
+        return progress;
+    }
+
+    /**
+     * Run the tasks of a level in anytime mode, refining the most promising seeds first, until all tasks are done or
+     * the budget is spent. The candidates of an attribute are merged into the beams of the level once all of its tasks
+     * are done, in the same order as in a search without budget, such that a complete level has the same groups. The
+     * candidates of the tasks that have not run when the budget is spent are left out.
+     *
+     * @param tasks The tasks per attribute and seed, which have not been started.
+     * @param seedIndices The indices of the distinct seeds of every heuristic, in the order of its beam.
+     * @param attributeBestGroups The beams of the level, per heuristic.
+     * @param statistics The counters of the level.
+     * @param thresholds The evaluation a refinement has to reach to enter the beam of every heuristic.
+     * @param pool The pool that runs the tasks, or null if the tasks are run by this thread.
+     * @param options The search options.
+     * @param budget The budget of the search.
+     * @param results The results of the previous levels, per heuristic.
+     * @param bestGroups The beams of the previous levels, per heuristic.
+     * @param level The index of the level.
+     * @param completedLevels Whether every level has been searched completely.
+     * @param searchWidth The width of the beams.
+     * @param checkValue Whether the values are compared when checking the beams for duplicates.
+     * @return True if all tasks have been run, false if the budget has been spent before.
+     */
+    private static boolean runAnytime(SeedSearch[][] tasks, int[][] seedIndices, FixedSizeGroupCollection[] attributeBestGroups, SearchStatistics statistics, AtomicLongArray thresholds, ForkJoinPool pool, SearchOptions options, Budget budget, List<Group[][]> results, FixedSizeGroupCollection[] bestGroups, int level, boolean[] completedLevels, int searchWidth, boolean checkValue) {
+        int attributeCount = tasks.length;
+        int seedCount = attributeCount == 0 ? 0 : tasks[0].length;
+
+        //Order the seeds by their best position in the beam of any heuristic.
+        int[] rank = new int[seedCount];
+        Arrays.fill(rank, Integer.MAX_VALUE);
+        for(int[] indices : seedIndices) {
+            for(int k = 0; k < indices.length; k++) {
+                rank[indices[k]] = Math.min(rank[indices[k]], k);
+            }
+        }
+        Integer[] order = new Integer[seedCount];
+        for(int j = 0; j < seedCount; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer j) -> rank[j]).thenComparingInt(j -> j));
+
+        //The candidates of the tasks that are done, and the beams of all candidates of this level in the order they
+        //are found, which are only used to publish the progress.
+        Candidates[][][] done = new Candidates[attributeCount][seedCount][];
+        FixedSizeGroupCollection[] found = new FixedSizeGroupCollection[attributeBestGroups.length];
+        for(int h = 0; h < found.length; h++) {
+            found[h] = new FixedSizeGroupCollection(searchWidth, checkValue);
+        }
+
+        //Run the tasks of the seeds one after another, as many at the same time as there are threads.
+        Consumer<SearchProgress> listener = options.getProgressListener();
+        int batchSize = pool == null ? 1 : options.getThreads();
+        int total = attributeCount * seedCount;
+        int next = 0;
+        int merged = 0;
+        while(next < total && !budget.isSpent()) {
+            int end = Math.min(next + batchSize, total);
+            if(pool != null) {
+                for(int u = next; u < end; u++) {
+                    pool.execute(tasks[u % attributeCount][order[u / attributeCount]]);
                 }
             }
+            for(int u = next; u < end; u++) {
+                int i = u % attributeCount;
+                int j = order[u / attributeCount];
+                done[i][j] = pool != null ? tasks[i][j].join() : tasks[i][j].invoke();
+                statistics.add(tasks[i][j].getStatistics());
+                budget.addEvaluatedCandidates(tasks[i][j].getStatistics().getEvaluatedCandidates());
+                for(int h = 0; h < found.length; h++) {
+                    merge(new Candidates[]{done[i][j][h]}, found[h]);
+                }
+            }
+            next = end;
+
+            //Merge the attributes of which all tasks are done, which raises the thresholds of the remaining tasks.
+            while(merged < attributeCount && isDone(done[merged])) {
+                mergeAttribute(done[merged++], seedIndices, attributeBestGroups, thresholds, searchWidth);
+            }
+            if(listener != null) {
+                listener.accept(getProgress(results, bestGroups, found, level, completedLevels, budget, searchWidth, checkValue));
+            }
+        }
 
-            //Add the results of this level's results to the best groups list.
-            for(Group group : attributeBestGroups.toArray()) {
-                bestGroups.add(group);
+        //Merge the remaining attributes without the candidates of the tasks that have not run.
+        for(; merged < attributeCount; merged++) {
+            for(int j = 0; j < seedCount; j++) {
+                if(done[merged][j] == null) {
+                    done[merged][j] = new Candidates[attributeBestGroups.length];
+                    for(int h = 0; h < attributeBestGroups.length; h++) {
+                        done[merged][j][h] = new Candidates();
+                    }
+                }
             }
+            mergeAttribute(done[merged], seedIndices, attributeBestGroups, thresholds, searchWidth);
+        }
+        return next == total;
+    }
 
+    /**
+     * Check whether all tasks of an attribute are done.
+     *
+     * @param candidates The candidates of the tasks of the attribute per seed, which are null for tasks that have not run.
+     * @return True if every task is done.
+     */
+    private static boolean isDone(Candidates[][] candidates) {
+        for(Candidates[] seedCandidates : candidates) {
+            if(seedCandidates == null) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-            //Add the level's results to the result array.
-            result[level] = bestGroups.toArray();
+    /**
+     * Get the progress of a search in anytime mode, of which the current level holds the best groups of the previous
+     * levels together with the best candidates of the current level found so far.
+     *
+     * @param results The results of the previous levels, per heuristic.
+     * @param bestGroups The beams of the previous levels, per heuristic.
+     * @param found The beams of the candidates of the current level found so far, per heuristic.
+     * @param level The index of the current level.
+     * @param completedLevels Whether every level has been searched completely.
+     * @param budget The budget of the search.
+     * @param searchWidth The width of the beams.
+     * @param checkValue Whether the values are compared when checking the beams for duplicates.
+     * @return The progress, which does not change when the search continues.
+     */
+    private static SearchProgress getProgress(List<Group[][]> results, FixedSizeGroupCollection[] bestGroups, FixedSizeGroupCollection[] found, int level, boolean[] completedLevels, Budget budget, int searchWidth, boolean checkValue) {
+        List<Group[][]> snapshot = new ArrayList<>();
+        for(int h = 0; h < bestGroups.length; h++) {
+            Group[][] levels = new Group[results.get(h).length][];
+            for(int l = 0; l < levels.length; l++) {
+                levels[l] = l < level ? results.get(h)[l] : new Group[0];
+            }
+            FixedSizeGroupCollection current = new FixedSizeGroupCollection(searchWidth, checkValue);
+            for(Group group : bestGroups[h].toArray()) {
+                current.add(group);
+            }
+            for(Group group : found[h].toArray()) {
+                current.add(group);
+            }
+            levels[level] = current.toArray();
+            snapshot.add(levels);
         }
+        return new SearchProgress(snapshot, completedLevels.clone(), false, budget.getEvaluatedCandidates(), budget.getElapsedMillis());
+    }
+
+    /**
+     * Add the candidates of all seeds for a single attribute to the beam of every heuristic, and raise the threshold
+     * of every heuristic of which the beam is full.
+     *
+     * @param candidates The candidates per seed and heuristic.
+     * @param seedIndices The indices of the distinct seeds of every heuristic, in the order of its beam.
+     * @param attributeBestGroups The beams of the level, per heuristic.
+     * @param thresholds The evaluation a refinement has to reach to enter the beam of every heuristic.
+     * @param searchWidth The width of the beams.
+     */
+    private static void mergeAttribute(Candidates[][] candidates, int[][] seedIndices, FixedSizeGroupCollection[] attributeBestGroups, AtomicLongArray thresholds, int searchWidth) {
+        for(int h = 0; h < attributeBestGroups.length; h++) {
+            Candidates[] heuristicCandidates = new Candidates[seedIndices[h].length];
+            for(int k = 0; k < heuristicCandidates.length; k++) {
+                heuristicCandidates[k] = candidates[seedIndices[h][k]][h];
+            }
+            merge(heuristicCandidates, attributeBestGroups[h]);
 
-        return result;
+            //Refinements that are worse than the worst group in the full new beam can never enter it.
+            if(attributeBestGroups[h].size() == searchWidth && attributeBestGroups[h].getWorstResult() > Double.longBitsToDouble(thresholds.get(h))) {
+                thresholds.set(h, Double.doubleToLongBits(attributeBestGroups[h].getWorstResult()));
+            }
+        }
     }
 
     /**
-     * Search on a fixed attribute.
+     * Count the == conditions on all attributes for all seeds with a single pass over the instances.
      *
      * @param data The data set.
-     * @param heuristic The heuristic function to use.
-     * @param attribute The attribute we want to check values of.
-     * @param minimumGroupSize The minimum size of a subgroup.
-     * @param seeds The list of seeds the search should use.
-     * @return A collection of best results.
+     * @param seeds The distinct seeds, as the copy of the seed in the beam of every heuristic.
+     * @param attributes The attributes that are refined.
+     * @return The counts per seed and attribute.
      */
-    public static void attributeSearch(ArffFile data, AbstractHeuristic heuristic, AbstractAttribute attribute, int minimumGroupSize, double maximumFraction, Group[] seeds, FixedSizeGroupCollection bestGroups) {
-        //List of values we have seen already.
-        HashSet<String> visitedCombinations = new HashSet<>();
+    private static CodeCounts[][] countLevel(ArffFile data, List<Group[]> seeds, List<AbstractAttribute> attributes) {
+        AbstractColumn[] columns = new AbstractColumn[attributes.size()];
+        for(int i = 0; i < columns.length; i++) {
+            columns[i] = data.getColumn(attributes.get(i));
+        }
 
-        //Iterate over all instances, and get the value corresponding to the selected attribute.
-        for(Instance instance : data.getInstances()) {
-            String value = instance.getValue(attribute);
+        //The copies of a seed all cover the same instances, and a seed without copies covers all instances.
+        int[][] seedRows = new int[seeds.size()][];
+        for(int j = 0; j < seedRows.length; j++) {
+            for(Group seed : seeds.get(j)) {
+                if(seed != null) {
+                    seedRows[j] = seed.getRows();
+                    break;
+                }
+            }
+        }
+        CodeCounts[][] counts = CodeCounts.count(columns, seedRows, data.getPositives(), data.getInstanceCount());
+        System.out.println("[" + getCurrentTimeStamp() + "]: Counted " + seedRows.length + " seeds on " + columns.length + " attributes with a single pass over " + data.getInstanceCount() + " instances.");
+        return counts;
+    }
 
-            //We can do this check before the metric stuff, as if the value is present, we know we have ran all the metrics before anyway.
-            if(visitedCombinations.contains(value) || value.equals("?")) {
+    /**
+     * Find the distinct seeds in the beams of all heuristics. Seeds with the same conditions in the same order are the
+     * same seed, and a beam without groups has a single seed, which is no seed at all.
+     *
+     * @param bestGroups The beams of all heuristics.
+     * @param seeds The list to add the distinct seeds to, as the copy of the seed in the beam of every heuristic.
+     * @return The indices of the distinct seeds of every heuristic, in the order of its beam.
+     */
+    private static int[][] getDistinctSeeds(FixedSizeGroupCollection[] bestGroups, List<Group[]> seeds) {
+        int[][] seedIndices = new int[bestGroups.length][];
+        Map<String, Integer> indices = new HashMap<>();
+        for(int h = 0; h < bestGroups.length; h++) {
+            Group[] beam = bestGroups[h].toArray();
+            if(beam.length == 0) {
+                //All heuristics without seeds share the same task.
+                String key = "";
+                if(!indices.containsKey(key)) {
+                    indices.put(key, seeds.size());
+                    seeds.add(new Group[bestGroups.length]);
+                }
+                seedIndices[h] = new int[]{indices.get(key)};
                 continue;
             }
 
-            //Add the value to the visited list.
-            visitedCombinations.add(value);
+            //A beam could contain the same seed twice, which are kept apart as their candidates are merged twice.
+            Map<String, Integer> occurrences = new HashMap<>();
+            seedIndices[h] = new int[beam.length];
+            for(int k = 0; k < beam.length; k++) {
+                String name = beam[k].toString();
+                int occurrence = occurrences.merge(name, 1, Integer::sum);
+                String key = occurrence + ":" + name;
+                Integer index = indices.get(key);
+                if(index == null) {
+                    index = seeds.size();
+                    indices.put(key, index);
+                    seeds.add(new Group[bestGroups.length]);
+                }
+                seeds.get(index)[h] = beam[k];
+                seedIndices[h][k] = index;
+            }
+        }
+        return seedIndices;
+    }
 
-            //We have different options for the metric.
-            for(EvaluationMetric metric : EvaluationMetric.getValues(attribute.getType())) {
-                //As we have a list of seeds, we have to iterate over all of them as well during the result gathering.
-                Group[] seededGroups;
-                if (seeds.length == 0) {
-                    seededGroups = new Group[]{new Group(attribute, value, metric)};
-                } else {
-                    seededGroups = new Group[seeds.length];
-                    int i = 0;
-                    for (Group seed : seeds) {
-                        seededGroups[i] = new Group(attribute, value, metric, seed);
-                        i++;
-                    }
+    /**
+     * Add the candidates of all seeds for a single attribute to the beam, ordered by the position of their condition,
+     * and then by the order of the seeds.
+     *
+     * @param candidates The candidates per seed, each ordered by the position of their condition.
+     * @param bestGroups The beam to add the candidates to.
+     */
+    private static void merge(Candidates[] candidates, FixedSizeGroupCollection bestGroups) {
+        int[] next = new int[candidates.length];
+        while(true) {
+            //Find the smallest position among the next candidates of all seeds.
+            int position = Integer.MAX_VALUE;
+            for(int j = 0; j < candidates.length; j++) {
+                if(next[j] < candidates[j].size()) {
+                    position = Math.min(position, candidates[j].getPosition(next[j]));
                 }
+            }
+            if(position == Integer.MAX_VALUE) {
+                return;
+            }
 
-                //Iterate over all seeded groups.
-                for(Group group : seededGroups) {
-                    //With different metrics, a group could appear more often than once.
-                    //The group should not have two or more metrics on the same value.
-                    if(group.getSeed() != null && group.getSeed().containsGroup(attribute, metric)) {
-                        continue;
-                    }
+            //Add the candidates at that position, in the order of the seeds.
+            for(int j = 0; j < candidates.length; j++) {
+                if(next[j] < candidates[j].size() && candidates[j].getPosition(next[j]) == position) {
+                    bestGroups.add(candidates[j].getGroup(next[j]));
+                    next[j]++;
+                }
+            }
+        }
+    }
 
-                    //Do an evaluation.
-                    HeuristicResult result = HeuristicResult.evaluate(heuristic, group, data.getInstances());
+    /**
+     * Find the cut points of all numeric attributes that are searched.
+     *
+     * @param data The data set.
+     * @param discretizer The discretizer to use, or null if all thresholds should be considered.
+     * @param blacklist The names of the attributes that are not searched.
+     * @return The cut points per attribute id, which are null for attributes that are not discretized.
+     */
+    static CutPoints[] discretize(ArffFile data, AbstractDiscretizer discretizer, HashSet<String> blacklist) {
+        CutPoints[] cutPoints = new CutPoints[data.getAttributes().length];
+        if(discretizer == null) {
+            return cutPoints;
+        }
 
-                    //Set the result in the group itself.
-                    group.setResult(result);
+        int thresholds = 0;
+        int cuts = 0;
+        for(AbstractAttribute attribute : data.getAttributes()) {
+            AbstractColumn column = data.getColumn(attribute);
+            if(column instanceof NumericColumn && attribute.getId() != data.getTarget() && !blacklist.contains(attribute.getName())) {
+                cutPoints[attribute.getId()] = discretizer.discretize((NumericColumn) column, data.getPositives());
+                thresholds += ((NumericColumn) column).getRankCount();
+                cuts += cutPoints[attribute.getId()].size();
+            }
+        }
+        System.out.println("[" + getCurrentTimeStamp() + "]: Discretized numeric attributes with " + discretizer + ", keeping " + cuts + " of " + thresholds + " distinct thresholds.");
+        return cutPoints;
+    }
 
-                    //Check if the group has reduced the size of the seed, or the size of the total set, depending on the value of seed.
-                    if(group.getSeed() == null) {
-                        //Check if we have a different set than the original data set. Make sure that our group is not empty...
-                        if((result.getCoveredPositive() + result.getCoveredNegative()) >= maximumFraction * (result.getPositiveCount() + result.getNegativeCount()) || result.getCoveredPositive() + result.getCoveredNegative() < minimumGroupSize) {
-                            continue;
-                        }
-                    } else {
-                        //Check if this set is different from the seed's set.
-                        if(result.getCoveredPositive() == result.getPositiveCount() && result.getCoveredNegative() == result.getNegativeCount() || result.getCoveredPositive() + result.getCoveredNegative() < minimumGroupSize) {
-                            continue;
-                        }
-                    }
+    /**
+     * Print the change in quality of the best groups of a search, compared to the best groups of a reference search.
+     *
+     * @param reference The results of the reference search.
+     * @param result The results of the search.
+     */
+    public static void printQualityChange(Group[][] reference, Group[][] result) {
+        for(int level = 0; level < result.length; level++) {
+            double referenceBest = reference[level].length == 0 ? Double.NaN : reference[level][0].getResult().getEvaluationValue();
+            double best = result[level].length == 0 ? Double.NaN : result[level][0].getResult().getEvaluationValue();
+            double referenceMean = getMeanEvaluation(reference[level]);
+            double mean = getMeanEvaluation(result[level]);
+            System.out.println(String.format("Level-%d: best %.6f (reference %.6f, change %+.6f), top-%d mean %.6f (reference %.6f, change %+.6f)",
+                    level + 1, best, referenceBest, best - referenceBest, result[level].length, mean, referenceMean, mean - referenceMean));
+        }
+    }
 
-                    //Add the group to the candidacy list.
-                    bestGroups.add(group);
-                }
-            }
+    /**
+     * Get the mean evaluation of the groups.
+     *
+     * @param groups The groups.
+     * @return The mean evaluation value, which is NaN if there are no groups.
+     */
+    private static double getMeanEvaluation(Group[] groups) {
+        double sum = 0;
+        for(Group group : groups) {
+            sum += group.getResult().getEvaluationValue();
         }
+        return sum / groups.length;
     }
 
     /**
@@ -136,4 +595,65 @@ public class BeamSearch {
     public static String getCurrentTimeStamp() {
         return new SimpleDateFormat("HH:mm:ss").format(new Date());
     }
+
+    /**
+     * The time and candidates a search may spend, and what it has spent so far.
+     */
+    private static class Budget {
+        //The moment the search started, and the moments after which the search stops, in nanoseconds.
+        private final long start;
+        private final long deadline;
+
+        //The amount of candidates after which the search stops, which is 0 if it is not limited, and the amount of
+        //candidates evaluated so far.
+        private final long candidateBudget;
+        private long evaluatedCandidates;
+
+        /**
+         * Create the budget of the given options, starting now.
+         *
+         * @param options The search options.
+         */
+        private Budget(SearchOptions options) {
+            this.start = System.nanoTime();
+            this.deadline = options.getTimeBudgetMillis() > 0 ? start + options.getTimeBudgetMillis() * 1000000L : Long.MAX_VALUE;
+            this.candidateBudget = options.getCandidateBudget();
+        }
+
+        /**
+         * Count the candidates evaluated by a task.
+         *
+         * @param count The amount of evaluated candidates.
+         */
+        private void addEvaluatedCandidates(long count) {
+            evaluatedCandidates += count;
+        }
+
+        /**
+         * Get the amount of candidates evaluated so far.
+         *
+         * @return The amount of evaluated candidates.
+         */
+        private long getEvaluatedCandidates() {
+            return evaluatedCandidates;
+        }
+
+        /**
+         * Get the time since the search started.
+         *
+         * @return The time in milliseconds.
+         */
+        private long getElapsedMillis() {
+            return (System.nanoTime() - start) / 1000000L;
+        }
+
+        /**
+         * Check whether the search has to stop.
+         *
+         * @return True if the time or the candidates have been spent.
+         */
+        private boolean isSpent() {
+            return deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0 || candidateBudget > 0 && evaluatedCandidates >= candidateBudget;
+        }
+    }
 }
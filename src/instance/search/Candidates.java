@@ -0,0 +1,61 @@
+package instance.search;
+
+import instance.object.Group;
+
+import java.util.Arrays;
+
+/**
+ * The evaluated candidates of a single seed and attribute that passed all checks, in the order they were generated.
+ * Every candidate has a position, which is the index of its condition in the order of values and metrics.
+ */
+class Candidates {
+    //The candidates and their positions.
+    private Group[] groups = new Group[16];
+    private int[] positions = new int[16];
+    private int size;
+
+    /**
+     * Add a candidate, of which the position is larger than those of all previous candidates.
+     *
+     * @param position The position of the condition of the candidate.
+     * @param group The candidate.
+     */
+    void add(int position, Group group) {
+        if(size == groups.length) {
+            groups = Arrays.copyOf(groups, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+        }
+        groups[size] = group;
+        positions[size] = position;
+        size++;
+    }
+
+    /**
+     * Get the amount of candidates.
+     *
+     * @return The amount of candidates.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the candidate at the given index.
+     *
+     * @param index The index of the candidate.
+     * @return The candidate.
+     */
+    Group getGroup(int index) {
+        return groups[index];
+    }
+
+    /**
+     * Get the position of the condition of the candidate at the given index.
+     *
+     * @param index The index of the candidate.
+     * @return The position of the condition.
+     */
+    int getPosition(int index) {
+        return positions[index];
+    }
+}
@@ -0,0 +1,150 @@
+package instance.search;
+
+import instance.object.GroupKey;
+import instance.result.ConfusionMatrix;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the confusion matrices of groups, keyed by the set of conditions of the group, such that a group that is
+ * reached from different seeds is only counted once. The cache is bounded by an estimate of its memory use, and
+ * evicts the least recently used matrices when it is full.
+ */
+public class ConfusionMatrixCache {
+    //The estimated memory use of an entry without its conditions: the key, the matrix and the entry of the map.
+    private static final long ENTRY_BYTES = 160;
+
+    //The estimated memory use of every condition in a key.
+    private static final long CONDITION_BYTES = Long.BYTES;
+
+    //The matrices in order of their last use, of which the first is evicted first.
+    private final LinkedHashMap<GroupKey, ConfusionMatrix> matrices = new LinkedHashMap<>(16, 0.75f, true);
+
+    //The maximum and current estimated memory use in bytes.
+    private final long maximumBytes;
+    private long bytes;
+
+    //The counters of the cache.
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Create a cache.
+     *
+     * @param maximumBytes The maximum estimated memory use in bytes, where 0 disables the cache.
+     */
+    public ConfusionMatrixCache(long maximumBytes) {
+        if(maximumBytes < 0) {
+            throw new IllegalArgumentException("The size of the cache cannot be negative, got " + maximumBytes + ".");
+        }
+        this.maximumBytes = maximumBytes;
+    }
+
+    /**
+     * Get the confusion matrix of the group with the given key, and count the hit or miss.
+     *
+     * @param key The key of the group.
+     * @return The confusion matrix, or null if it is not in the cache.
+     */
+    public synchronized ConfusionMatrix get(GroupKey key) {
+        ConfusionMatrix matrix = matrices.get(key);
+        if(matrix == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return matrix;
+    }
+
+    /**
+     * Add the confusion matrix of the group with the given key, evicting the least recently used matrices if needed.
+     *
+     * @param key The key of the group.
+     * @param matrix The confusion matrix of the group.
+     */
+    public synchronized void put(GroupKey key, ConfusionMatrix matrix) {
+        long size = getSizeInBytes(key);
+        if(size > maximumBytes || matrices.putIfAbsent(key, matrix) != null) {
+            return;
+        }
+        bytes += size;
+
+        //Evict the least recently used matrices, which never includes the new matrix.
+        while(bytes > maximumBytes) {
+            Map.Entry<GroupKey, ConfusionMatrix> eldest = matrices.entrySet().iterator().next();
+            matrices.remove(eldest.getKey());
+            bytes -= getSizeInBytes(eldest.getKey());
+            evictions++;
+        }
+    }
+
+    /**
+     * Remove all matrices from the cache, without resetting the counters.
+     */
+    public synchronized void clear() {
+        matrices.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Get the amount of matrices in the cache.
+     *
+     * @return The amount of matrices.
+     */
+    public synchronized int size() {
+        return matrices.size();
+    }
+
+    /**
+     * Get the estimated memory use of the cache.
+     *
+     * @return The size in bytes.
+     */
+    public synchronized long getSizeInBytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the amount of lookups that found a matrix.
+     *
+     * @return The amount of hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the amount of lookups that did not find a matrix.
+     *
+     * @return The amount of misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the amount of matrices that have been removed to make room for new ones.
+     *
+     * @return The amount of evictions.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Estimate the memory use of an entry.
+     *
+     * @param key The key of the entry.
+     * @return The size in bytes.
+     */
+    private static long getSizeInBytes(GroupKey key) {
+        return ENTRY_BYTES + CONDITION_BYTES * key.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return hits + " hits, " + misses + " misses and " + evictions + " evictions, holding " + matrices.size() + " matrices in " + bytes + " bytes.";
+    }
+}
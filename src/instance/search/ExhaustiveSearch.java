@@ -0,0 +1,352 @@
+package instance.search;
+
+import instance.attribute.AbstractAttribute;
+import instance.column.AbstractColumn;
+import instance.column.NumericColumn;
+import instance.discretization.AbstractDiscretizer;
+import instance.discretization.CutPoints;
+import instance.discretization.EqualFrequencyDiscretizer;
+import instance.extent.Extent;
+import instance.heuristic.AbstractHeuristic;
+import instance.object.ArffFile;
+import instance.object.EvaluationMetric;
+import instance.object.FixedSizeGroupCollection;
+import instance.object.Group;
+import instance.result.ConfusionMatrix;
+import instance.result.HeuristicResult;
+
+import java.util.*;
+
+/**
+ * Class used for exhaustive depth-first searches, which find the best groups of every size instead of only those
+ * that can be reached through the beam.
+ *
+ * The conditions are the items of a prefix tree over the instances (see {@link PrefixTree}), and the conjunctions are
+ * enumerated by growing the tree of every conjunction with one more condition, as in FP-growth. A conjunction is
+ * only extended if it covers at least the minimum group size, and if its optimistic estimate can still enter the
+ * results. Conjunctions that do not cover any instance are never enumerated, as the tree only holds the conditions
+ * that occur together with the conjunction, whatever the minimum group size. As in the beam search, a conjunction
+ * never has two conditions with the same attribute and metric.
+ */
+public class ExhaustiveSearch {
+    //The amount of bins of numeric attributes if no discretizer is given, as every threshold would be an item.
+    private static final int DEFAULT_BINS = 10;
+
+    /**
+     * Do an exhaustive search for every heuristic at once, keeping the best groups up to every size per heuristic.
+     * The minimum group size applies to the instances that are known to be covered, which is also what the search
+     * prunes on, so groups of heuristics that count unknowns for <= conditions need that many known instances too.
+     *
+     * @param context The context of the search.
+     * @param heuristics The heuristic functions to use.
+     * @param searchWidth The amount of best groups to keep.
+     * @param searchDepth The maximum amount of conditions of a group.
+     * @param minimumGroupSize The minimum size of a subgroup.
+     * @param maximumFraction The maximum fraction of the data set a subgroup with a single condition may cover.
+     * @param checkValue Whether the values are compared when checking the results for duplicates.
+     * @param blacklist The names of the attributes that are not searched.
+     * @param options The search options, of which only the discretizer is used.
+     * @return The best groups with at most 1 up to the maximum amount of conditions, per heuristic.
+     */
+    public static List<Group[][]> search(SearchContext context, List<AbstractHeuristic> heuristics, int searchWidth, int searchDepth, int minimumGroupSize, double maximumFraction, boolean checkValue, HashSet<String> blacklist, SearchOptions options) {
+        ArffFile data = context.getData();
+        AbstractDiscretizer discretizer = options.getDiscretizer() != null ? options.getDiscretizer() : new EqualFrequencyDiscretizer(DEFAULT_BINS);
+        CutPoints[] cutPoints = BeamSearch.discretize(data, discretizer, blacklist);
+
+        ExhaustiveSearch search = new ExhaustiveSearch(context, heuristics.toArray(new AbstractHeuristic[0]), searchWidth, searchDepth, minimumGroupSize, maximumFraction, checkValue);
+        search.createItems(blacklist, cutPoints);
+        System.out.println("[" + BeamSearch.getCurrentTimeStamp() + "]: Searching " + search.items.length + " conditions that cover at least " + search.minimumSupport + " instances.");
+        search.mine(search.createTree(), new int[0]);
+        context.addStatistics(search.statistics);
+        System.out.println("[" + BeamSearch.getCurrentTimeStamp() + "]: " + search.statistics);
+
+        List<Group[][]> results = new ArrayList<>();
+        for(FixedSizeGroupCollection[] collections : search.bestGroups) {
+            Group[][] result = new Group[searchDepth][];
+            for(int depth = 0; depth < searchDepth; depth++) {
+                result[depth] = collections[depth].toArray();
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    //The context of the search, its data set, and the heuristics used to evaluate the groups.
+    private final SearchContext context;
+    private final ArffFile data;
+    private final AbstractHeuristic[] heuristics;
+
+    //The dimensions of the search.
+    private final int searchWidth;
+    private final int searchDepth;
+    private final int minimumGroupSize;
+    private final double maximumFraction;
+
+    //The amount of instances a condition has to cover to be an item of a tree, which is at least one.
+    private final int minimumSupport;
+
+    //The best groups per heuristic, with at most 1 up to the maximum amount of conditions.
+    private final FixedSizeGroupCollection[][] bestGroups;
+
+    //The conditions, ordered by decreasing amount of covered instances.
+    private Condition[] items;
+
+    //The conditions every condition may not be combined with.
+    private boolean[][] excluded;
+
+    //The amount of unknown instances, and unknown positive instances, per set of attributes.
+    private final Map<BitSet, int[]> unknowns = new HashMap<>();
+
+    //The counters of the search.
+    private final SearchStatistics statistics = new SearchStatistics();
+
+    /**
+     * Create the search.
+     *
+     * @param context The context of the search.
+     * @param heuristics The heuristic functions to use.
+     * @param searchWidth The amount of best groups to keep.
+     * @param searchDepth The maximum amount of conditions of a group.
+     * @param minimumGroupSize The minimum size of a subgroup.
+     * @param maximumFraction The maximum fraction of the data set a subgroup with a single condition may cover.
+     * @param checkValue Whether the values are compared when checking the results for duplicates.
+     */
+    private ExhaustiveSearch(SearchContext context, AbstractHeuristic[] heuristics, int searchWidth, int searchDepth, int minimumGroupSize, double maximumFraction, boolean checkValue) {
+        this.context = context;
+        this.data = context.getData();
+        this.heuristics = heuristics;
+        this.searchWidth = searchWidth;
+        this.searchDepth = searchDepth;
+        this.minimumGroupSize = minimumGroupSize;
+        this.maximumFraction = maximumFraction;
+        this.minimumSupport = Math.max(1, minimumGroupSize);
+        this.bestGroups = new FixedSizeGroupCollection[heuristics.length][searchDepth];
+        for(int h = 0; h < heuristics.length; h++) {
+            for(int depth = 0; depth < searchDepth; depth++) {
+                bestGroups[h][depth] = new FixedSizeGroupCollection(searchWidth, checkValue);
+            }
+        }
+    }
+
+    /**
+     * Create the conditions that cover at least the minimum group size. A numeric attribute only has conditions at
+     * its cut points, with one condition per distinct value, of which the first label is used.
+     *
+     * @param blacklist The names of the attributes that are not searched.
+     * @param cutPoints The cut points per attribute id.
+     */
+    private void createItems(HashSet<String> blacklist, CutPoints[] cutPoints) {
+        List<Condition> conditions = new ArrayList<>();
+        for(AbstractAttribute attribute : data.getAttributes()) {
+            if(blacklist.contains(attribute.getName()) || attribute.getId() == data.getTarget()) {
+                continue;
+            }
+            AbstractColumn column = data.getColumn(attribute);
+            EvaluationMetric[] metrics = EvaluationMetric.getValues(attribute.getType());
+            boolean[][] seenRanks = column instanceof NumericColumn ? new boolean[metrics.length][((NumericColumn) column).getRankCount()] : null;
+            for(int code = 0; code < column.getLabelCount(); code++) {
+                for(int m = 0; m < metrics.length; m++) {
+                    if(seenRanks != null) {
+                        int rank = ((NumericColumn) column).getLabelRank(code);
+                        if(rank == -1 || seenRanks[m][rank] || !cutPoints[attribute.getId()].allows(code, metrics[m])) {
+                            continue;
+                        }
+                        seenRanks[m][rank] = true;
+                    }
+                    Extent extent = context.getConditionExtent(column, code, metrics[m]);
+                    int count = extent.cardinality();
+                    if(count >= minimumSupport) {
+                        conditions.add(new Condition(column, code, metrics[m], conditions.size(), count, extent));
+                    }
+                }
+            }
+        }
+
+        //Frequent conditions come first, such that the transactions share long prefixes.
+        conditions.sort(Comparator.comparingInt((Condition condition) -> -condition.count).thenComparingInt(condition -> condition.position));
+        items = conditions.toArray(new Condition[0]);
+        excluded = new boolean[items.length][items.length];
+        for(int i = 0; i < items.length; i++) {
+            for(int j = 0; j < items.length; j++) {
+                excluded[i][j] = items[i].column == items[j].column && items[i].metric == items[j].metric;
+            }
+        }
+    }
+
+    /**
+     * Create the prefix tree of all instances, of which the transaction holds the conditions the instance satisfies.
+     *
+     * @return The prefix tree.
+     */
+    private PrefixTree createTree() {
+        PrefixTree tree = new PrefixTree(items.length);
+        Extent positives = data.getPositives();
+        int[] transaction = new int[items.length];
+        for(int row = 0; row < data.getInstanceCount(); row++) {
+            int length = 0;
+            for(int item = 0; item < items.length; item++) {
+                if(items[item].extent.contains(row)) {
+                    transaction[length++] = item;
+                }
+            }
+            tree.insert(transaction, length, 1, positives.contains(row) ? 1 : 0);
+        }
+        return tree;
+    }
+
+    /**
+     * Evaluate every conjunction of the suffix with an item of the tree, and search the extensions of those
+     * conjunctions that can still improve the results.
+     *
+     * @param tree The tree of the instances covered by the suffix.
+     * @param suffix The items of the conjunction the tree belongs to.
+     */
+    private void mine(PrefixTree tree, int[] suffix) {
+        for(int item = tree.getItemCount() - 1; item >= 0; item--) {
+            //Items that are not in the tree, such as those that may not be combined with the suffix, have no instances.
+            int count = tree.getCount(item);
+            if(count < minimumSupport) {
+                continue;
+            }
+            int[] conjunction = Arrays.copyOf(suffix, suffix.length + 1);
+            conjunction[suffix.length] = item;
+            int positive = tree.getPositives(item);
+            evaluate(conjunction, count, positive);
+            statistics.addEvaluatedCandidate();
+
+            if(conjunction.length < searchDepth) {
+                if(isPruned(conjunction.length, positive, count - positive)) {
+                    statistics.addPrunedSeed();
+                } else {
+                    mine(tree.getConditionalTree(item, minimumSupport, excluded[item]), conjunction);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluate the conjunction with every heuristic, and add it to the results it qualifies for.
+     *
+     * @param conjunction The items of the conjunction.
+     * @param count The amount of instances covered by the conjunction.
+     * @param positive The amount of positive instances covered by the conjunction.
+     */
+    private void evaluate(int[] conjunction, int count, int positive) {
+        //The conditions of a group are in the order of attributes, values and metrics, like in the beam search.
+        Condition[] conditions = new Condition[conjunction.length];
+        for(int i = 0; i < conjunction.length; i++) {
+            conditions[i] = items[conjunction[i]];
+        }
+        Arrays.sort(conditions, Comparator.comparingInt(condition -> condition.position));
+        int[] unknown = getUnknowns(conditions);
+
+        for(int h = 0; h < heuristics.length; h++) {
+            Group group = null;
+            for(Condition condition : conditions) {
+                group = group == null ? new Group(condition.column, condition.code, condition.metric) : new Group(condition.column, condition.code, condition.metric, group);
+            }
+            HeuristicResult result = HeuristicResult.evaluate(heuristics[h], group, ConfusionMatrix.of(data, count, positive, unknown[0], unknown[1]));
+            group.setResult(result);
+
+            //The same checks as the beam search, where a single condition is compared to the entire data set.
+            double covered = result.getCoveredPositive() + result.getCoveredNegative();
+            if(covered < minimumGroupSize) {
+                continue;
+            }
+            if(conditions.length == 1 ? covered >= maximumFraction * (result.getPositiveCount() + result.getNegativeCount()) : result.getCoveredPositive() == result.getPositiveCount() && result.getCoveredNegative() == result.getNegativeCount()) {
+                continue;
+            }
+
+            //The group qualifies for the results of its own size, and all larger sizes.
+            for(int depth = conditions.length - 1; depth < searchDepth; depth++) {
+                bestGroups[h][depth].add(group);
+            }
+        }
+    }
+
+    /**
+     * Get the amount of instances with a missing value for one of the attributes of the conditions.
+     *
+     * @param conditions The conditions.
+     * @return The amount of unknown instances, and the amount of unknown positive instances.
+     */
+    private int[] getUnknowns(Condition[] conditions) {
+        BitSet attributes = new BitSet();
+        for(Condition condition : conditions) {
+            attributes.set(condition.column.getAttribute().getId());
+        }
+        int[] unknown = unknowns.get(attributes);
+        if(unknown == null) {
+            Extent missing = null;
+            for(Condition condition : conditions) {
+                missing = missing == null ? condition.column.getMissingExtent() : missing.or(condition.column.getMissingExtent());
+            }
+            unknown = new int[]{missing.cardinality(), missing.andCardinality(data.getPositives())};
+            unknowns.put(attributes, unknown);
+        }
+        return unknown;
+    }
+
+    /**
+     * Check whether no extension of the conjunction can enter the results of any heuristic. The extensions only
+     * qualify for the results of larger sizes, and are compared to the worst group of those results once all are full.
+     *
+     * @param size The amount of conditions of the conjunction.
+     * @param p The amount of covered positive instances.
+     * @param n The amount of covered negative instances.
+     * @return True if the extensions do not have to be searched, false otherwise.
+     */
+    private boolean isPruned(int size, double p, double n) {
+        double P = data.getPositiveCount();
+        double N = data.getInstanceCount() - P;
+        for(int h = 0; h < heuristics.length; h++) {
+            double threshold = Double.POSITIVE_INFINITY;
+            for(int depth = size; depth < searchDepth; depth++) {
+                FixedSizeGroupCollection collection = bestGroups[h][depth];
+                threshold = Math.min(threshold, collection.size() == searchWidth ? collection.getWorstResult() : Double.NEGATIVE_INFINITY);
+            }
+            if(heuristics[h].getOptimisticEstimate(p, n, P, N, minimumGroupSize) >= threshold) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A condition on an attribute, which is an item of the prefix tree.
+     */
+    private static class Condition {
+        //The condition itself.
+        private final AbstractColumn column;
+        private final int code;
+        private final EvaluationMetric metric;
+
+        //The position of the condition in the order of attributes, values and metrics.
+        private final int position;
+
+        //The amount of covered instances.
+        private final int count;
+
+        //The instances covered by the condition.
+        private final Extent extent;
+
+        /**
+         * Create a condition.
+         *
+         * @param column The column of the attribute.
+         * @param code The code of the cutoff value.
+         * @param metric The comparison mode.
+         * @param position The position of the condition.
+         * @param count The amount of covered instances.
+         * @param extent The instances covered by the condition.
+         */
+        private Condition(AbstractColumn column, int code, EvaluationMetric metric, int position, int count, Extent extent) {
+            this.column = column;
+            this.code = code;
+            this.metric = metric;
+            this.position = position;
+            this.count = count;
+            this.extent = extent;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package instance.search;
+
+/**
+ * Compressed prefix tree of transactions, in which every transaction is the list of conditions (items) an instance
+ * satisfies. Transactions with a common prefix share the nodes of that prefix, and every node counts the instances
+ * and positive instances of the transactions that pass through it, as in SD-Map:
+ *
+ * M. Atzmueller, F. Puppe
+ * SD-Map - A Fast Algorithm for Exhaustive Subgroup Discovery, PKDD 2006.
+ *
+ * The items of a transaction are inserted in increasing order, and the nodes of every item are linked, such that the
+ * instances covered by a set of items can be counted without going over the instances again.
+ */
+class PrefixTree {
+    //The root of the tree, which has no item.
+    private final Node root = new Node(-1, null);
+
+    //The first node of every item, from which all its nodes are linked.
+    private final Node[] heads;
+
+    //The amount of instances, and positive instances, of every item.
+    private final int[] counts;
+    private final int[] positives;
+
+    /**
+     * Create an empty tree.
+     *
+     * @param items The amount of distinct items.
+     */
+    PrefixTree(int items) {
+        this.heads = new Node[items];
+        this.counts = new int[items];
+        this.positives = new int[items];
+    }
+
+    /**
+     * Insert a transaction.
+     *
+     * @param items The items of the transaction, in increasing order.
+     * @param length The amount of items in the transaction.
+     * @param count The amount of instances with this transaction.
+     * @param positive The amount of positive instances with this transaction.
+     */
+    void insert(int[] items, int length, int count, int positive) {
+        Node node = root;
+        for(int i = 0; i < length; i++) {
+            int item = items[i];
+            Node child = node.child;
+            while(child != null && child.item != item) {
+                child = child.sibling;
+            }
+            if(child == null) {
+                child = new Node(item, node);
+                child.sibling = node.child;
+                node.child = child;
+                child.link = heads[item];
+                heads[item] = child;
+            }
+            child.count += count;
+            child.positive += positive;
+            counts[item] += count;
+            positives[item] += positive;
+            node = child;
+        }
+    }
+
+    /**
+     * Get the amount of distinct items.
+     *
+     * @return The amount of items.
+     */
+    int getItemCount() {
+        return heads.length;
+    }
+
+    /**
+     * Get the amount of instances of which the transaction contains the item.
+     *
+     * @param item The item.
+     * @return The amount of instances.
+     */
+    int getCount(int item) {
+        return counts[item];
+    }
+
+    /**
+     * Get the amount of positive instances of which the transaction contains the item.
+     *
+     * @param item The item.
+     * @return The amount of positive instances.
+     */
+    int getPositives(int item) {
+        return positives[item];
+    }
+
+    /**
+     * Create the tree of the transactions that contain the item, holding only the items before it.
+     * Items that do not occur often enough together with the item, or that may not be combined with it, are left out.
+     *
+     * @param item The item.
+     * @param minimumSupport The minimum amount of instances of an item in the new tree.
+     * @param excluded Whether every item may not be combined with the item.
+     * @return The conditional tree of the item.
+     */
+    PrefixTree getConditionalTree(int item, int minimumSupport, boolean[] excluded) {
+        //Count the items on the paths to the nodes of the item.
+        int[] support = new int[heads.length];
+        for(Node node = heads[item]; node != null; node = node.link) {
+            for(Node ancestor = node.parent; ancestor != root; ancestor = ancestor.parent) {
+                support[ancestor.item] += node.count;
+            }
+        }
+
+        //Insert the paths with the remaining items, which are collected from the leaf up, so they are reversed.
+        PrefixTree tree = new PrefixTree(heads.length);
+        int[] path = new int[heads.length];
+        for(Node node = heads[item]; node != null; node = node.link) {
+            int length = 0;
+            for(Node ancestor = node.parent; ancestor != root; ancestor = ancestor.parent) {
+                if(support[ancestor.item] >= minimumSupport && !excluded[ancestor.item]) {
+                    path[length++] = ancestor.item;
+                }
+            }
+            for(int i = 0; i < length / 2; i++) {
+                int swap = path[i];
+                path[i] = path[length - 1 - i];
+                path[length - 1 - i] = swap;
+            }
+            tree.insert(path, length, node.count, node.positive);
+        }
+        return tree;
+    }
+
+    /**
+     * A node of the tree.
+     */
+    private static class Node {
+        //The item of the node, and its parent.
+        private final int item;
+        private final Node parent;
+
+        //The amount of instances, and positive instances, of the transactions that pass through the node.
+        private int count;
+        private int positive;
+
+        //The first child, the next child of the parent, and the next node with the same item.
+        private Node child;
+        private Node sibling;
+        private Node link;
+
+        /**
+         * Create a node.
+         *
+         * @param item The item of the node.
+         * @param parent The parent of the node.
+         */
+        private Node(int item, Node parent) {
+            this.item = item;
+            this.parent = parent;
+        }
+    }
+}
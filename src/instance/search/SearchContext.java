@@ -0,0 +1,146 @@
+package instance.search;
+
+import instance.column.AbstractColumn;
+import instance.extent.Extent;
+import instance.object.ArffFile;
+import instance.object.EvaluationMetric;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The state shared by the searches on a single data set: the data set itself, the caches and the statistics.
+ * A context is safe to use by several searches at the same time, and nothing is shared between contexts. Closing the
+ * context frees its caches, after which it can no longer be used.
+ */
+public class SearchContext implements AutoCloseable {
+    //The default maximum memory use of the cache of confusion matrices, which holds about 400000 groups.
+    public static final long DEFAULT_CACHE_BYTES = 64L << 20;
+
+    //The data set, which holds the columns with the parsed values.
+    private final ArffFile data;
+
+    //The extents of the == conditions, per attribute id and code, which do not depend on the search.
+    private final AtomicReferenceArray<AtomicReferenceArray<Extent>> conditionExtents;
+
+    //The confusion matrices of the groups that have been counted, keyed by their conditions.
+    private final ConfusionMatrixCache confusionMatrixCache;
+
+    //The counters of all searches done in this context.
+    private final SearchStatistics statistics = new SearchStatistics();
+
+    //Whether the context has been closed.
+    private volatile boolean closed = false;
+
+    /**
+     * Create a search context for the given data set.
+     *
+     * @param data The data set.
+     */
+    public SearchContext(ArffFile data) {
+        this(data, DEFAULT_CACHE_BYTES);
+    }
+
+    /**
+     * Create a search context for the given data set, of which the cache of confusion matrices has the given size.
+     *
+     * @param data The data set.
+     * @param cacheBytes The maximum estimated memory use of the cache of confusion matrices in bytes, where 0 disables
+     *                   the cache.
+     */
+    public SearchContext(ArffFile data, long cacheBytes) {
+        this.data = data;
+        this.conditionExtents = new AtomicReferenceArray<>(data.getAttributes().length);
+        this.confusionMatrixCache = new ConfusionMatrixCache(cacheBytes);
+    }
+
+    /**
+     * Get the data set of this context.
+     *
+     * @return The data set.
+     */
+    public ArffFile getData() {
+        checkOpen();
+        return data;
+    }
+
+    /**
+     * Get the extent of the instances of which the known value satisfies the given condition.
+     * The extents of == conditions are cached, as they are needed by every seed on every level.
+     *
+     * @param column The column of the attribute.
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode to use.
+     * @return The extent of the condition.
+     */
+    public Extent getConditionExtent(AbstractColumn column, int code, EvaluationMetric metric) {
+        checkOpen();
+        if(metric != EvaluationMetric.EQ) {
+            return column.getConditionExtent(code, metric);
+        }
+
+        int id = column.getAttribute().getId();
+        AtomicReferenceArray<Extent> extents = conditionExtents.get(id);
+        if(extents == null) {
+            conditionExtents.compareAndSet(id, null, new AtomicReferenceArray<>(column.getLabelCount()));
+            extents = conditionExtents.get(id);
+        }
+        Extent extent = extents.get(code);
+        if(extent == null) {
+            //Threads that need the same condition at the same time calculate the same extent, so either one can be kept.
+            extents.compareAndSet(code, null, column.getConditionExtent(code, metric));
+            extent = extents.get(code);
+        }
+        return extent;
+    }
+
+    /**
+     * Get the cache of the confusion matrices of the groups that have been counted, which is shared by all searches.
+     *
+     * @return The cache.
+     */
+    public ConfusionMatrixCache getConfusionMatrixCache() {
+        checkOpen();
+        return confusionMatrixCache;
+    }
+
+    /**
+     * Add the counters of (a level of) a search to the counters of this context.
+     *
+     * @param statistics The counters to add.
+     */
+    public synchronized void addStatistics(SearchStatistics statistics) {
+        this.statistics.add(statistics);
+    }
+
+    /**
+     * Get the counters of all searches done in this context.
+     *
+     * @return A copy of the counters.
+     */
+    public synchronized SearchStatistics getStatistics() {
+        SearchStatistics copy = new SearchStatistics();
+        copy.add(statistics);
+        return copy;
+    }
+
+    /**
+     * Close the context, which frees all caches.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        confusionMatrixCache.clear();
+        for(int i = 0; i < conditionExtents.length(); i++) {
+            conditionExtents.set(i, null);
+        }
+    }
+
+    /**
+     * Make sure that the context has not been closed.
+     */
+    private void checkOpen() {
+        if(closed) {
+            throw new IllegalStateException("The search context has been closed.");
+        }
+    }
+}
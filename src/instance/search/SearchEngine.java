@@ -0,0 +1,12 @@
+package instance.search;
+
+/**
+ * The search algorithms that can be used to find subgroups.
+ */
+public enum SearchEngine {
+    //The level-wise beam search, see BeamSearch.
+    BEAM,
+
+    //The exhaustive depth-first search, see ExhaustiveSearch.
+    EXHAUSTIVE
+}
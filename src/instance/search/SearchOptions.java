@@ -0,0 +1,279 @@
+package instance.search;
+
+import instance.discretization.AbstractDiscretizer;
+
+import java.util.function.Consumer;
+
+/**
+ * Options that change how the search generates and evaluates its candidates, next to the dimensions of the beam.
+ * The default options give the exhaustive beam search.
+ */
+public class SearchOptions {
+    //Whether numeric conditions are only generated at class boundary points.
+    private boolean boundaryPointsOnly = false;
+
+    //The discretization of numeric attributes done before the search, or null if all thresholds are considered.
+    private AbstractDiscretizer discretizer = null;
+
+    //The amount of threads used to evaluate candidates.
+    private int threads = 1;
+
+    //The search algorithm.
+    private SearchEngine engine = SearchEngine.BEAM;
+
+    //Whether all refinements of a level are counted with a single pass over the instances.
+    private boolean batchedCounting = false;
+
+    //The wall-clock time and the amount of evaluated candidates after which the search stops, where 0 means no limit.
+    private long timeBudgetMillis = 0;
+    private long candidateBudget = 0;
+
+    //The amount of instances on which candidates are evaluated before they are counted on the full data set, where 0
+    //means that all candidates are counted exactly, and the confidence with which the sample discards a candidate.
+    private int sampleSize = 0;
+    private double sampleConfidence = 0.95;
+
+    //The listener that receives the best groups found so far while the search runs, or null if there is none.
+    private Consumer<SearchProgress> progressListener = null;
+
+    /**
+     * Create the default options.
+     */
+    public SearchOptions() {
+    }
+
+    /**
+     * Create a copy of the given options.
+     *
+     * @param options The options to copy.
+     */
+    public SearchOptions(SearchOptions options) {
+        this.boundaryPointsOnly = options.boundaryPointsOnly;
+        this.discretizer = options.discretizer;
+        this.threads = options.threads;
+        this.engine = options.engine;
+        this.batchedCounting = options.batchedCounting;
+        this.timeBudgetMillis = options.timeBudgetMillis;
+        this.candidateBudget = options.candidateBudget;
+        this.sampleSize = options.sampleSize;
+        this.sampleConfidence = options.sampleConfidence;
+        this.progressListener = options.progressListener;
+    }
+
+    /**
+     * Whether numeric conditions are only generated at class boundary points of the seed's extent.
+     *
+     * @return True if the boundary point mode is used.
+     */
+    public boolean isBoundaryPointsOnly() {
+        return boundaryPointsOnly;
+    }
+
+    /**
+     * Set whether numeric conditions are only generated at class boundary points of the seed's extent.
+     * The best threshold of a convex heuristic always lies at a boundary point, so the best group per seed and
+     * attribute is never lost. The other groups in the beam can differ, as they may be replaced by groups that are
+     * worse than the thresholds that were skipped. The mode is ignored for heuristics that are not convex, see
+     * {@link instance.heuristic.AbstractHeuristic#isConvex()}.
+     *
+     * @param boundaryPointsOnly True to only generate numeric conditions at boundary points.
+     */
+    public void setBoundaryPointsOnly(boolean boundaryPointsOnly) {
+        this.boundaryPointsOnly = boundaryPointsOnly;
+    }
+
+    /**
+     * Get the discretization of numeric attributes done before the search.
+     *
+     * @return The discretizer, or null if all thresholds are considered.
+     */
+    public AbstractDiscretizer getDiscretizer() {
+        return discretizer;
+    }
+
+    /**
+     * Set the discretization of numeric attributes done before the search, which limits the thresholds of every
+     * numeric attribute to the cut points found by the discretizer.
+     *
+     * @param discretizer The discretizer, or null to consider all thresholds.
+     */
+    public void setDiscretizer(AbstractDiscretizer discretizer) {
+        this.discretizer = discretizer;
+    }
+
+    /**
+     * Get the amount of threads used to evaluate candidates.
+     *
+     * @return The amount of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Set the amount of threads used to evaluate candidates. The results do not depend on the amount of threads.
+     *
+     * @param threads The amount of threads, which is at least 1.
+     */
+    public void setThreads(int threads) {
+        if(threads < 1) {
+            throw new IllegalArgumentException("At least 1 thread is required, got " + threads + ".");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Get the search algorithm.
+     *
+     * @return The search engine.
+     */
+    public SearchEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Set the search algorithm. The exhaustive search finds the best groups of every size instead of those reachable
+     * from the beam, but only the beam search supports the boundary point mode and multiple threads.
+     *
+     * @param engine The search engine.
+     */
+    public void setEngine(SearchEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Whether all refinements of a level are counted with a single pass over the instances.
+     *
+     * @return True if the counting is batched per level.
+     */
+    public boolean isBatchedCounting() {
+        return batchedCounting;
+    }
+
+    /**
+     * Set whether all refinements of a level are counted with a single pass over the instances, before any of them is
+     * evaluated. The values of every instance are then read once per level in the order of the instances, instead of
+     * once per seed and attribute, at the cost of holding the counts of all seeds and attributes at the same time.
+     * The results do not depend on this option. It only applies to the beam search.
+     *
+     * @param batchedCounting True to count all refinements of a level with a single pass.
+     */
+    public void setBatchedCounting(boolean batchedCounting) {
+        this.batchedCounting = batchedCounting;
+    }
+
+    /**
+     * Get the wall-clock time after which the search stops.
+     *
+     * @return The budget in milliseconds, or 0 if the time is not limited.
+     */
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * Set the wall-clock time after which the search stops and returns the best groups found so far. The budget is
+     * checked before every refinement task, so the search can run over it by the time of a single task.
+     *
+     * @param timeBudgetMillis The budget in milliseconds, or 0 to not limit the time.
+     */
+    public void setTimeBudgetMillis(long timeBudgetMillis) {
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * Get the amount of evaluated candidates after which the search stops.
+     *
+     * @return The budget, or 0 if the amount of candidates is not limited.
+     */
+    public long getCandidateBudget() {
+        return candidateBudget;
+    }
+
+    /**
+     * Set the amount of evaluated candidates after which the search stops and returns the best groups found so far.
+     * The budget is checked before every refinement task, so the search can evaluate the candidates of a single task
+     * more than the budget.
+     *
+     * @param candidateBudget The budget, or 0 to not limit the amount of candidates.
+     */
+    public void setCandidateBudget(long candidateBudget) {
+        this.candidateBudget = candidateBudget;
+    }
+
+    /**
+     * Get the amount of instances on which candidates are evaluated before they are counted on the full data set.
+     *
+     * @return The size of the sample, or 0 if all candidates are counted exactly.
+     */
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    /**
+     * Set the amount of instances on which candidates are evaluated before they are counted on the full data set.
+     * The instances are sampled per class, and a candidate is only counted on the full data set when its evaluation
+     * on the sample, plus the error bound of the sample, can still enter the beam. The candidates that do enter the
+     * beam are thus always evaluated exactly, and the probability that any candidate of a level is wrongly discarded
+     * is at most 1 - {@link #getSampleConfidence()}. Heuristics without an error bound never discard a candidate. It only
+     * applies to the beam search when the counting is not batched, as the batched counts are exact already.
+     *
+     * @param sampleSize The size of the sample, or 0 to count all candidates exactly.
+     */
+    public void setSampleSize(int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Get the confidence with which the evaluations of all candidates of a level on the sample are within their error
+     * bounds.
+     *
+     * @return The confidence, between 0 and 1.
+     */
+    public double getSampleConfidence() {
+        return sampleConfidence;
+    }
+
+    /**
+     * Set the confidence with which the evaluations of all candidates of a level on the sample are within their error
+     * bounds. A higher confidence gives wider error bounds, such that fewer candidates are discarded.
+     *
+     * @param sampleConfidence The confidence, between 0 and 1 exclusive.
+     */
+    public void setSampleConfidence(double sampleConfidence) {
+        if(!(sampleConfidence > 0 && sampleConfidence < 1)) {
+            throw new IllegalArgumentException("The confidence of the sample has to be between 0 and 1, got " + sampleConfidence + ".");
+        }
+        this.sampleConfidence = sampleConfidence;
+    }
+
+    /**
+     * Get the listener that receives the best groups found so far while the search runs.
+     *
+     * @return The listener, or null if there is none.
+     */
+    public Consumer<SearchProgress> getProgressListener() {
+        return progressListener;
+    }
+
+    /**
+     * Set the listener that receives the best groups found so far while the search runs, after every refinement task
+     * and once more when the search ends. The listener is called from the thread that runs the search.
+     *
+     * @param progressListener The listener, or null to not publish any progress.
+     */
+    public void setProgressListener(Consumer<SearchProgress> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Whether the search runs in anytime mode, in which the most promising seeds are refined first, such that the
+     * search can stop at any time with the best groups found so far. This is the case when a budget or a progress
+     * listener is set. It only applies to the beam search.
+     *
+     * @return True if the search runs in anytime mode.
+     */
+    public boolean isAnytime() {
+        return timeBudgetMillis > 0 || candidateBudget > 0 || progressListener != null;
+    }
+}
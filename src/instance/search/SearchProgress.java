@@ -0,0 +1,114 @@
+package instance.search;
+
+import instance.object.Group;
+
+import java.util.List;
+
+/**
+ * The best groups found by a search up to some moment, together with the levels that have been searched completely.
+ * The groups of a level that is not complete are the best groups among the refinements evaluated so far, and the
+ * levels that have not been started have no groups.
+ */
+public class SearchProgress {
+    //The groups of every level, per heuristic.
+    private final List<Group[][]> results;
+
+    //Whether every level has been searched completely.
+    private final boolean[] completedLevels;
+
+    //Whether the search has ended, the amount of evaluated candidates and the time since the search started.
+    private final boolean finished;
+    private final long evaluatedCandidates;
+    private final long elapsedMillis;
+
+    /**
+     * Create the progress.
+     *
+     * @param results The groups of every level, per heuristic.
+     * @param completedLevels Whether every level has been searched completely.
+     * @param finished Whether the search has ended, either because all levels are complete or the budget is spent.
+     * @param evaluatedCandidates The amount of candidates evaluated so far.
+     * @param elapsedMillis The time since the search started, in milliseconds.
+     */
+    SearchProgress(List<Group[][]> results, boolean[] completedLevels, boolean finished, long evaluatedCandidates, long elapsedMillis) {
+        this.results = results;
+        this.completedLevels = completedLevels;
+        this.finished = finished;
+        this.evaluatedCandidates = evaluatedCandidates;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Get the groups of every level, per heuristic.
+     *
+     * @return The groups found so far, which should not be modified.
+     */
+    public List<Group[][]> getResults() {
+        return results;
+    }
+
+    /**
+     * Check whether the level has been searched completely.
+     *
+     * @param level The index of the level, starting at 0.
+     * @return True if all refinements of the level have been evaluated.
+     */
+    public boolean isLevelComplete(int level) {
+        return completedLevels[level];
+    }
+
+    /**
+     * Get the amount of levels that have been searched completely, which are always the first levels.
+     *
+     * @return The amount of complete levels.
+     */
+    public int getCompletedLevelCount() {
+        int count = 0;
+        while(count < completedLevels.length && completedLevels[count]) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Check whether all levels have been searched completely, in which case the results are those of a search
+     * without budget.
+     *
+     * @return True if all levels are complete.
+     */
+    public boolean isComplete() {
+        return getCompletedLevelCount() == completedLevels.length;
+    }
+
+    /**
+     * Check whether the search has ended, such that no more progress follows.
+     *
+     * @return True if the search has ended.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Get the amount of candidates evaluated so far.
+     *
+     * @return The amount of evaluated candidates.
+     */
+    public long getEvaluatedCandidates() {
+        return evaluatedCandidates;
+    }
+
+    /**
+     * Get the time since the search started.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "Completed " + getCompletedLevelCount() + " of " + completedLevels.length + " levels with " + evaluatedCandidates + " evaluated candidates in " + elapsedMillis + " ms" + (finished ? "." : ", still searching.");
+    }
+}
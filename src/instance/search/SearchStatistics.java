@@ -0,0 +1,247 @@
+package instance.search;
+
+/**
+ * Counters describing the work done by a search.
+ */
+public class SearchStatistics {
+    //The amount of evaluated candidates, and the amount of candidates that were skipped without evaluation.
+    private long evaluatedCandidates;
+    private long skippedThresholds;
+
+    //The amount of candidates that were removed by the discretization.
+    private long discretizedCandidates;
+
+    //The amount of evaluated candidates that were dropped before the merge, as the beam would reject them.
+    private long droppedCandidates;
+
+    //The amount of seeds that were not refined, as none of their refinements could enter the beam.
+    private long prunedSeeds;
+
+    //The amount of candidates that were not evaluated, as the same conjunction is generated from another seed.
+    private long duplicateCandidates;
+
+    //The amount of candidates that were evaluated on the sample, of which those that were discarded without being
+    //counted on the full data set, and the largest error bound with which a candidate was discarded.
+    private long sampledCandidates;
+    private long discardedCandidates;
+    private double largestErrorBound;
+
+    //The probability that any candidate was wrongly discarded on the sample, summed over the levels.
+    private double errorProbability;
+
+    //The amount of instances that were read to count the candidates.
+    private long scannedRows;
+
+    /**
+     * Count a candidate that has been evaluated.
+     */
+    public void addEvaluatedCandidate() {
+        evaluatedCandidates++;
+    }
+
+    /**
+     * Count a numeric condition that has been skipped because it does not lie at a class boundary point.
+     */
+    public void addSkippedThreshold() {
+        skippedThresholds++;
+    }
+
+    /**
+     * Count candidates that have been removed, because their threshold is not a cut point of the discretization.
+     *
+     * @param count The amount of removed candidates.
+     */
+    public void addDiscretizedCandidates(long count) {
+        discretizedCandidates += count;
+    }
+
+    /**
+     * Count a candidate that has been dropped before the merge, because the beam is guaranteed to reject it.
+     */
+    public void addDroppedCandidate() {
+        droppedCandidates++;
+    }
+
+    /**
+     * Count a seed that has not been refined, because its optimistic estimate cannot enter the beam.
+     */
+    public void addPrunedSeed() {
+        prunedSeeds++;
+    }
+
+    /**
+     * Count a candidate that has not been evaluated, because the same conjunction is generated from another seed.
+     */
+    public void addDuplicateCandidate() {
+        duplicateCandidates++;
+    }
+
+    /**
+     * Count a candidate that has been evaluated on the sample.
+     */
+    public void addSampledCandidate() {
+        sampledCandidates++;
+    }
+
+    /**
+     * Count a candidate that has been discarded on the sample, because the beam rejects it even if its evaluation on
+     * the sample is off by the error bound.
+     *
+     * @param errorBound The error bound of the evaluation of the candidate on the sample.
+     */
+    public void addDiscardedCandidate(double errorBound) {
+        discardedCandidates++;
+        largestErrorBound = Math.max(largestErrorBound, errorBound);
+    }
+
+    /**
+     * Add the probability that any candidate of a level is wrongly discarded on the sample. The probabilities of
+     * several levels are summed, which bounds the probability that a candidate of any of them is wrongly discarded.
+     *
+     * @param probability The error probability of the level.
+     */
+    public void addErrorProbability(double probability) {
+        errorProbability += probability;
+    }
+
+    /**
+     * Count instances that have been read to count the candidates.
+     *
+     * @param count The amount of instances read.
+     */
+    public void addScannedRows(long count) {
+        scannedRows += count;
+    }
+
+    /**
+     * Add the counters of another search, such as the search of a single seed and attribute.
+     *
+     * @param statistics The counters to add.
+     */
+    public void add(SearchStatistics statistics) {
+        evaluatedCandidates += statistics.evaluatedCandidates;
+        skippedThresholds += statistics.skippedThresholds;
+        discretizedCandidates += statistics.discretizedCandidates;
+        droppedCandidates += statistics.droppedCandidates;
+        prunedSeeds += statistics.prunedSeeds;
+        duplicateCandidates += statistics.duplicateCandidates;
+        sampledCandidates += statistics.sampledCandidates;
+        discardedCandidates += statistics.discardedCandidates;
+        largestErrorBound = Math.max(largestErrorBound, statistics.largestErrorBound);
+        errorProbability += statistics.errorProbability;
+        scannedRows += statistics.scannedRows;
+    }
+
+    /**
+     * Get the amount of evaluated candidates.
+     *
+     * @return The amount of evaluated candidates.
+     */
+    public long getEvaluatedCandidates() {
+        return evaluatedCandidates;
+    }
+
+    /**
+     * Get the amount of numeric conditions that have been skipped because they do not lie at a class boundary point.
+     *
+     * @return The amount of skipped thresholds.
+     */
+    public long getSkippedThresholds() {
+        return skippedThresholds;
+    }
+
+    /**
+     * Get the amount of candidates that have been removed by the discretization.
+     *
+     * @return The amount of removed candidates.
+     */
+    public long getDiscretizedCandidates() {
+        return discretizedCandidates;
+    }
+
+    /**
+     * Get the amount of evaluated candidates that have been dropped before the merge.
+     *
+     * @return The amount of dropped candidates.
+     */
+    public long getDroppedCandidates() {
+        return droppedCandidates;
+    }
+
+    /**
+     * Get the amount of seeds that have not been refined because of their optimistic estimate.
+     *
+     * @return The amount of pruned seeds.
+     */
+    public long getPrunedSeeds() {
+        return prunedSeeds;
+    }
+
+    /**
+     * Get the amount of candidates that have not been evaluated because they duplicate a conjunction of another seed.
+     *
+     * @return The amount of duplicate candidates.
+     */
+    public long getDuplicateCandidates() {
+        return duplicateCandidates;
+    }
+
+    /**
+     * Get the amount of candidates that have been evaluated on the sample.
+     *
+     * @return The amount of sampled candidates.
+     */
+    public long getSampledCandidates() {
+        return sampledCandidates;
+    }
+
+    /**
+     * Get the amount of candidates that have been discarded on the sample, without being counted on the full data set.
+     *
+     * @return The amount of discarded candidates.
+     */
+    public long getDiscardedCandidates() {
+        return discardedCandidates;
+    }
+
+    /**
+     * Get the largest error bound with which a candidate has been discarded on the sample.
+     *
+     * @return The error bound, which is 0 if no candidate has been discarded.
+     */
+    public double getLargestErrorBound() {
+        return largestErrorBound;
+    }
+
+    /**
+     * Get the probability that any candidate has been wrongly discarded on the sample.
+     *
+     * @return The error probability, which is at most 1.
+     */
+    public double getErrorProbability() {
+        return Math.min(1, errorProbability);
+    }
+
+    /**
+     * Get the amount of instances that have been read to count the candidates, where an instance that is read for
+     * several seeds or attributes is counted every time.
+     *
+     * @return The amount of instances read.
+     */
+    public long getScannedRows() {
+        return scannedRows;
+    }
+
+    /**
+     * Get the string representation of the counters.
+     *
+     * @return The counters in human readable form.
+     */
+    @Override
+    public String toString() {
+        String sampled = sampledCandidates == 0 ? "" : " Evaluated " + sampledCandidates + " candidates on the sample, of which " + discardedCandidates
+                + " were discarded with an error bound of at most " + String.format("%.6f", largestErrorBound) + ", wrongly discarding any candidate with a probability of at most "
+                + String.format("%.4f", getErrorProbability()) + ".";
+        return "Evaluated " + evaluatedCandidates + " candidates (" + droppedCandidates + " dropped before the merge), skipped " + skippedThresholds + " thresholds that are not boundary points, removed " + discretizedCandidates + " candidates by discretization, pruned " + prunedSeeds + " seeds by their optimistic estimate, skipped " + duplicateCandidates + " duplicate conjunctions." + sampled;
+    }
+}
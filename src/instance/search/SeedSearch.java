@@ -0,0 +1,544 @@
+package instance.search;
+
+import instance.attribute.AbstractAttribute;
+import instance.column.AbstractColumn;
+import instance.column.BoundaryPoints;
+import instance.column.CodeCounts;
+import instance.column.NumericColumn;
+import instance.column.ThresholdSweep;
+import instance.discretization.CutPoints;
+import instance.extent.Extent;
+import instance.heuristic.AbstractHeuristic;
+import instance.object.ArffFile;
+import instance.object.EvaluationMetric;
+import instance.object.Group;
+import instance.object.GroupKey;
+import instance.result.ConfusionMatrix;
+import instance.result.HeuristicResult;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Task that refines a single seed with all conditions on a single attribute, and evaluates the candidates.
+ * The instances covered by a candidate are counted once, after which the candidate is evaluated with every heuristic
+ * that has the seed in its beam. The task only reads shared state, so tasks of different seeds and attributes can run
+ * in parallel.
+ */
+class SeedSearch extends RecursiveTask<Candidates[]> {
+    private static final long serialVersionUID = 1L;
+
+    //The context of the search, its data set, and the heuristics used to evaluate the candidates.
+    private final SearchContext context;
+    private final ArffFile data;
+    private final AbstractHeuristic[] heuristics;
+
+    //The attribute to refine the seed with, and the seed, which is null on the first level.
+    private final AbstractAttribute attribute;
+    private final Group seed;
+
+    //The seed in the beam of every heuristic, and which heuristics refine the seed.
+    private final Group[] seeds;
+    private final boolean[] refines;
+
+    //The heuristics that refine a seed, per key of all distinct seeds of the level.
+    private final Map<GroupKey, boolean[]> seedKeys;
+
+    //The counts of the == conditions on the attribute combined with the seed, if all refinements of the level have been
+    //counted at once.
+    private final CodeCounts levelCounts;
+
+    //The evaluation a refinement has to reach to enter the beam of every heuristic, as the bits of a double.
+    private final AtomicLongArray thresholds;
+
+    //The limits on the size of a candidate.
+    private final int minimumGroupSize;
+    private final double maximumFraction;
+
+    //Whether numeric conditions are only generated at boundary points, and the cut points of the attribute if any.
+    private final boolean boundaryPointsOnly;
+    private final CutPoints cutPoints;
+
+    //The sample on which candidates are evaluated before they are counted, or null if all candidates are counted.
+    private final StratifiedSample sample;
+
+    //The width of the beams.
+    private final int searchWidth;
+
+    //The counters of this task.
+    private final SearchStatistics statistics = new SearchStatistics();
+
+    //The sweep of the seed over a numeric column and its boundary points, or the counts of the == conditions of the
+    //seed, which are calculated when first needed.
+    private ThresholdSweep sweep;
+    private BoundaryPoints[] boundaryPoints;
+    private CodeCounts codeCounts;
+    private int unknown = -1, unknownPositive;
+
+    //The sampled instances of the seed, and their sweep over a numeric column or the counts of their == conditions,
+    //which are calculated when first needed.
+    private int[] sampleRows;
+    private ThresholdSweep sampleSweep;
+    private CodeCounts sampleCounts;
+
+    /**
+     * Create the task.
+     *
+     * @param context The context of the search.
+     * @param heuristics The heuristic functions to use.
+     * @param attribute The attribute we want to check values of.
+     * @param seeds The seed in the beam of every heuristic, which are all null if there is no seed.
+     * @param refines Whether the heuristic refines the seed.
+     * @param seedKeys The heuristics that refine a seed, per key of all distinct seeds of the level.
+     * @param levelCounts The counts of the == conditions on the attribute combined with the seed, or null if the
+     *                    refinements of the seed are counted by the task itself.
+     * @param thresholds The evaluation a refinement has to reach to enter the beam of every heuristic, which is
+     *                   updated while the task is waiting to run.
+     * @param minimumGroupSize The minimum size of a subgroup.
+     * @param maximumFraction The maximum fraction of the data set a subgroup without seed may cover.
+     * @param boundaryPointsOnly Whether numeric conditions are only generated at class boundary points, for the
+     *                           heuristics that are convex.
+     * @param cutPoints The cut points of the attribute if it has been discretized, null otherwise.
+     * @param sample The sample on which candidates are evaluated before they are counted on the full data set, or null
+     *               if all candidates are counted exactly.
+     * @param searchWidth The width of the beams the candidates are merged into.
+     */
+    SeedSearch(SearchContext context, AbstractHeuristic[] heuristics, AbstractAttribute attribute, Group[] seeds, boolean[] refines, Map<GroupKey, boolean[]> seedKeys, CodeCounts levelCounts, AtomicLongArray thresholds, int minimumGroupSize, double maximumFraction, boolean boundaryPointsOnly, CutPoints cutPoints, StratifiedSample sample, int searchWidth) {
+        this.context = context;
+        this.data = context.getData();
+        this.heuristics = heuristics;
+        this.attribute = attribute;
+        this.seeds = seeds;
+        this.refines = refines.clone();
+        this.seedKeys = seedKeys;
+        this.levelCounts = levelCounts;
+        this.thresholds = thresholds;
+        this.minimumGroupSize = minimumGroupSize;
+        this.maximumFraction = maximumFraction;
+        this.boundaryPointsOnly = boundaryPointsOnly;
+        this.cutPoints = cutPoints;
+        this.sample = sample;
+        this.searchWidth = searchWidth;
+
+        //The copies of the seed all cover the same instances, so any of them can be used for counting.
+        Group seed = null;
+        for(int h = 0; h < heuristics.length && seed == null; h++) {
+            seed = seeds[h];
+        }
+        this.seed = seed;
+    }
+
+    /**
+     * Get the counters of this task.
+     *
+     * @return The counters.
+     */
+    SearchStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Evaluate all refinements of the seed, in the order of the values and metrics of the attribute.
+     *
+     * @return The candidates that passed all checks per heuristic, which are empty for heuristics that do not refine the seed.
+     */
+    @Override
+    protected Candidates[] compute() {
+        Candidates[] candidates = new Candidates[heuristics.length];
+
+        //The largest distinct evaluations of the earlier candidates of every heuristic, used to drop candidates early.
+        //Candidates can be dropped before the merge when a group and its duplicates always have the same evaluation,
+        //which is not the case when unknowns are counted for <= conditions, as only the last condition's metric counts.
+        TopValues[] topValues = new TopValues[heuristics.length];
+        boolean refined = false;
+        for(int h = 0; h < heuristics.length; h++) {
+            candidates[h] = new Candidates();
+            topValues[h] = heuristics[h].countsUnknownsInLEQ() ? null : new TopValues(searchWidth);
+
+            //Skip the seed if none of its refinements can reach the evaluation needed to enter the beam.
+            if(refines[h] && seed != null && isPruned(h)) {
+                refines[h] = false;
+                statistics.addPrunedSeed();
+            }
+            refined |= refines[h];
+        }
+
+        //The seed has been pruned for all heuristics.
+        if(!refined) {
+            return candidates;
+        }
+
+        //The <= and >= conditions of numeric columns are counted with a single sweep, done when first needed.
+        //The == conditions of a seed are counted with a single pass over the instances of the seed, done when first needed.
+        AbstractColumn column = data.getColumn(attribute);
+        NumericColumn numericColumn = column instanceof NumericColumn ? (NumericColumn) column : null;
+        ConfusionMatrixCache cache = context.getConfusionMatrixCache();
+        GroupKey seedKey = seed == null ? null : GroupKey.of(seed);
+
+        //Iterate over all distinct values of the attribute, which are encoded in order of first occurrence.
+        EvaluationMetric[] metrics = EvaluationMetric.getValues(attribute.getType());
+        for(int code = 0; code < column.getLabelCount(); code++) {
+            //We have different options for the metric.
+            for(int m = 0; m < metrics.length; m++) {
+                EvaluationMetric metric = metrics[m];
+
+                //Thresholds that are not a cut point of the discretization are never considered.
+                if(cutPoints != null && metric != EvaluationMetric.EQ && !cutPoints.allows(code, metric)) {
+                    statistics.addDiscretizedCandidates(1);
+                    continue;
+                }
+
+                //With different metrics, a group could appear more often than once.
+                //The group should not have two or more metrics on the same value.
+                if(seed != null && seed.containsGroup(attribute, metric)) {
+                    continue;
+                }
+
+                //Whether the condition is generated for every heuristic.
+                //Thresholds between two values of the same class can never be the best of a convex heuristic.
+                boolean[] generates = refines;
+                boolean numeric = numericColumn != null && metric != EvaluationMetric.EQ;
+                if(numeric && boundaryPointsOnly) {
+                    generates = getGeneratingHeuristics(getBoundaryPoints(numericColumn), code, metric);
+                    if(generates == null) {
+                        statistics.addSkippedThreshold();
+                        continue;
+                    }
+                }
+
+                //The same conjunction may be generated from another seed, of which the candidate is merged first.
+                GroupKey key = seedKey == null ? GroupKey.of(column, code, metric) : seedKey.with(column, code, metric);
+                if(seed != null) {
+                    generates = getNonDuplicateHeuristics(generates, key, code, m, metrics);
+                    if(generates == null) {
+                        statistics.addDuplicateCandidate();
+                        continue;
+                    }
+                }
+
+                //The same group may have been counted before, with its conditions in a different order.
+                ConfusionMatrix matrix = cache.get(key);
+                if(matrix == null) {
+                    //Discard the candidate without counting it if its evaluation on the sample is too far below the beam.
+                    if(sample != null && levelCounts == null) {
+                        statistics.addSampledCandidate();
+                        if(isDiscarded(estimateCondition(column, numeric ? numericColumn : null, code, metric), generates, topValues, column, code, metric)) {
+                            continue;
+                        }
+                    }
+                    if(numeric) {
+                        //Look up the counts of the condition in the sweep of the seed.
+                        ThresholdSweep sweep = getSweep(numericColumn);
+                        matrix = ConfusionMatrix.of(data, sweep.getCovered(code, metric), sweep.getCoveredPositive(code, metric), sweep.getUnknown(), sweep.getUnknownPositive());
+                    } else if(seed == null && levelCounts == null) {
+                        //Without a seed, the condition covers the instances of its extent.
+                        matrix = countCondition(column, context.getConditionExtent(column, code, metric));
+                    } else {
+                        //Look up the counts of the condition in the histogram of the instances of the seed.
+                        matrix = countCondition(column, code);
+                    }
+                    cache.put(key, matrix);
+                }
+                statistics.addEvaluatedCandidate();
+
+                //Evaluate the counts with every heuristic.
+                for(int h = 0; h < heuristics.length; h++) {
+                    if(!generates[h]) {
+                        continue;
+                    }
+                    Group group = seed == null ? new Group(column, code, metric) : new Group(column, code, metric, seeds[h]);
+                    HeuristicResult result = HeuristicResult.evaluate(heuristics[h], group, matrix);
+
+                    //Set the result in the group itself.
+                    group.setResult(result);
+
+                    //Check if the group has reduced the size of the seed, or the size of the total set, depending on the value of seed.
+                    if(seed == null) {
+                        //Check if we have a different set than the original data set. Make sure that our group is not empty...
+                        if((result.getCoveredPositive() + result.getCoveredNegative()) >= maximumFraction * (result.getPositiveCount() + result.getNegativeCount()) || result.getCoveredPositive() + result.getCoveredNegative() < minimumGroupSize) {
+                            continue;
+                        }
+                    } else {
+                        //Check if this set is different from the seed's set.
+                        if(result.getCoveredPositive() == result.getPositiveCount() && result.getCoveredNegative() == result.getNegativeCount() || result.getCoveredPositive() + result.getCoveredNegative() < minimumGroupSize) {
+                            continue;
+                        }
+                    }
+
+                    //Drop the candidate if the beam is guaranteed to reject it when it is merged.
+                    if(topValues[h] != null) {
+                        if(!topValues[h].admits(result.getEvaluationValue())) {
+                            statistics.addDroppedCandidate();
+                            continue;
+                        }
+                        topValues[h].add(result.getEvaluationValue());
+                    }
+
+                    //Add the group to the candidacy list.
+                    candidates[h].add(code * metrics.length + m, group);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Check whether the optimistic estimate of the seed is worse than the evaluation needed to enter the beam.
+     * A refinement with an equal evaluation could still enter the beam, so it is only pruned if it is strictly worse.
+     *
+     * @param h The index of the heuristic.
+     * @return True if no refinement of the seed can enter the beam of the heuristic, false otherwise.
+     */
+    private boolean isPruned(int h) {
+        HeuristicResult result = seeds[h].getResult();
+        double estimate = heuristics[h].getOptimisticEstimate(result.getCoveredPositive(), result.getCoveredNegative(), result.getPositiveCount(), result.getNegativeCount(), minimumGroupSize);
+        return estimate < Double.longBitsToDouble(thresholds.get(h));
+    }
+
+    /**
+     * Check whether a candidate is rejected by the beam of every heuristic that generates it, when its evaluation is
+     * as high as its evaluation on the sample plus the error bound of the heuristic. Candidates of which the estimate
+     * cannot be evaluated, such as those that do not cover any sampled instance for some heuristics, are never discarded.
+     *
+     * @param estimate The counts of the candidate estimated from the sample.
+     * @param generates Whether the condition is generated for every heuristic.
+     * @param topValues The largest distinct evaluations of the earlier candidates of every heuristic, if they can be used.
+     * @param column The column of the attribute.
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode to use.
+     * @return True if the candidate is discarded for all heuristics.
+     */
+    private boolean isDiscarded(ConfusionMatrix estimate, boolean[] generates, TopValues[] topValues, AbstractColumn column, int code, EvaluationMetric metric) {
+        double largestErrorBound = 0;
+        for(int h = 0; h < heuristics.length; h++) {
+            if(!generates[h]) {
+                continue;
+            }
+            Group group = seed == null ? new Group(column, code, metric) : new Group(column, code, metric, seeds[h]);
+            double evaluation = HeuristicResult.evaluate(heuristics[h], group, estimate).getEvaluationValue();
+            double errorBound = heuristics[h].getErrorBound(sample.getPositiveRadius(), sample.getNegativeRadius(), estimate.P, estimate.N);
+            if(evaluation == Integer.MIN_VALUE || !Double.isFinite(errorBound)) {
+                return false;
+            }
+
+            //The same checks as those that drop an evaluated candidate, with the highest evaluation the candidate may have.
+            double bound = evaluation + errorBound;
+            if(bound >= Double.longBitsToDouble(thresholds.get(h)) && (topValues[h] == null || topValues[h].admits(bound))) {
+                return false;
+            }
+            largestErrorBound = Math.max(largestErrorBound, errorBound);
+        }
+        statistics.addDiscardedCandidate(largestErrorBound);
+        return true;
+    }
+
+    /**
+     * Estimate the counts of the refinement of the seed with a condition from the sampled instances of the seed.
+     *
+     * @param column The column of the attribute.
+     * @param numericColumn The column of the attribute if the condition is a <= or >= condition, null otherwise.
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode to use.
+     * @return The estimated counts of the refinement.
+     */
+    private ConfusionMatrix estimateCondition(AbstractColumn column, NumericColumn numericColumn, int code, EvaluationMetric metric) {
+        if(sampleRows == null) {
+            sampleRows = seed == null ? sample.getRows() : seed.getExtent().and(sample.getExtent()).toArray();
+        }
+        if(numericColumn != null) {
+            //The unknown instances of the sweep are counted on the full data set.
+            if(sampleSweep == null) {
+                sampleSweep = numericColumn.sweep(sampleRows, seed == null ? null : seed.getUnknownExtent(), data.getPositives());
+                statistics.addScannedRows(sampleRows.length);
+            }
+            return sample.estimate(sampleSweep.getCovered(code, metric), sampleSweep.getCoveredPositive(code, metric), sampleSweep.getUnknown(), sampleSweep.getUnknownPositive());
+        }
+        if(sampleCounts == null) {
+            sampleCounts = column.count(sampleRows, data.getPositives());
+            statistics.addScannedRows(sampleRows.length);
+            countUnknown(column);
+        }
+        return sample.estimate(sampleCounts.getCovered(code), sampleCounts.getCoveredPositive(code), unknown, unknownPositive);
+    }
+
+    /**
+     * Find the heuristics that generate a numeric condition in boundary point mode.
+     * Heuristics that are not convex generate all thresholds.
+     *
+     * @param boundaryPoints The boundary points when unknowns are not, and are, counted for <= conditions.
+     * @param code The code of the cutoff value.
+     * @param metric The comparison mode, which is <= or >=.
+     * @return Whether the condition is generated per heuristic, or null if no heuristic generates it.
+     */
+    private boolean[] getGeneratingHeuristics(BoundaryPoints[] boundaryPoints, int code, EvaluationMetric metric) {
+        boolean[] generates = null;
+        for(int h = 0; h < heuristics.length; h++) {
+            AbstractHeuristic heuristic = heuristics[h];
+            if(refines[h] && (!heuristic.isConvex() || boundaryPoints[heuristic.countsUnknownsInLEQ() ? 1 : 0].contains(code, metric))) {
+                generates = generates == null ? new boolean[heuristics.length] : generates;
+                generates[h] = true;
+            }
+        }
+        return generates;
+    }
+
+    /**
+     * Find the heuristics for which the refinement of the seed is not a duplicate of a refinement of another seed that
+     * is merged first. Every condition of the seed that is merged before the new condition gives such a refinement, when
+     * the seed without that condition is in the beam of the heuristic. The beam would only keep the first of both, so
+     * the refinement is skipped when both are guaranteed to have the same evaluation.
+     *
+     * @param generates Whether the condition is generated for every heuristic.
+     * @param key The key of the refinement.
+     * @param code The code of the cutoff value.
+     * @param m The index of the comparison mode in the metrics of the attribute.
+     * @param metrics The metrics of the attribute.
+     * @return Whether the refinement is generated for every heuristic, or null if it is not generated for any heuristic.
+     */
+    private boolean[] getNonDuplicateHeuristics(boolean[] generates, GroupKey key, int code, int m, EvaluationMetric[] metrics) {
+        boolean[] result = generates;
+        for(Group condition = seed; condition != null; condition = condition.getSeed()) {
+            if(!isMergedBefore(condition, code * metrics.length + m)) {
+                continue;
+            }
+            boolean[] refined = seedKeys.get(key.without(condition.getColumn(), condition.getCode(), condition.getMetric()));
+            if(refined == null) {
+                continue;
+            }
+            for(int h = 0; h < heuristics.length; h++) {
+                if(result[h] && refined[h] && hasSameEvaluation(heuristics[h], condition.getMetric(), metrics[m])) {
+                    result = result == generates ? generates.clone() : result;
+                    result[h] = false;
+                }
+            }
+        }
+
+        for(boolean generated : result) {
+            if(generated) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether the candidate that ends with the given condition of the seed is merged before the candidate that
+     * ends with the new condition. Candidates are merged in the order of their attribute, and then of their value and
+     * metric.
+     *
+     * @param condition The condition of the seed.
+     * @param position The position of the new condition in the values and metrics of the attribute.
+     * @return True if the candidate with the condition of the seed is merged first.
+     */
+    private boolean isMergedBefore(Group condition, int position) {
+        int id = condition.getAttribute().getId();
+        if(id != attribute.getId()) {
+            return id < attribute.getId();
+        }
+        EvaluationMetric[] metrics = EvaluationMetric.getValues(attribute.getType());
+        return condition.getCode() * metrics.length + Arrays.asList(metrics).indexOf(condition.getMetric()) < position;
+    }
+
+    /**
+     * Check whether a conjunction has the same evaluation when either of both conditions is the last one, which is
+     * not the case when unknowns are counted for <= conditions and only one of them is a <= condition. In boundary
+     * point mode, the other candidate may not be generated when its last condition is a threshold.
+     *
+     * @param heuristic The heuristic function to use.
+     * @param first The metric of the last condition of the candidate that is merged first.
+     * @param second The metric of the new condition.
+     * @return True if both candidates are generated and have the same evaluation.
+     */
+    private boolean hasSameEvaluation(AbstractHeuristic heuristic, EvaluationMetric first, EvaluationMetric second) {
+        if(boundaryPointsOnly && heuristic.isConvex() && first != EvaluationMetric.EQ) {
+            return false;
+        }
+        return !heuristic.countsUnknownsInLEQ() || (first == EvaluationMetric.LTEQ) == (second == EvaluationMetric.LTEQ);
+    }
+
+    /**
+     * Get the sweep of the seed over the numeric column, which counts all <= and >= conditions at once.
+     *
+     * @param numericColumn The column of the attribute.
+     * @return The sweep.
+     */
+    private ThresholdSweep getSweep(NumericColumn numericColumn) {
+        if(sweep == null) {
+            Extent seedUnknown = seed == null ? null : seed.getUnknownExtent();
+            if(levelCounts != null) {
+                sweep = numericColumn.sweep(levelCounts, seedUnknown, data.getPositives());
+            } else {
+                sweep = numericColumn.sweep(seed == null ? null : seed.getRows(), seedUnknown, data.getPositives());
+                statistics.addScannedRows(seed == null ? data.getInstanceCount() : seed.getRows().length);
+            }
+        }
+        return sweep;
+    }
+
+    /**
+     * Get the boundary points of the sweep of the seed over the numeric column.
+     * The boundary points depend on whether unknowns are counted for <= conditions, so there are two variants.
+     *
+     * @param numericColumn The column of the attribute.
+     * @return The boundary points when unknowns are not, and are, counted for <= conditions.
+     */
+    private BoundaryPoints[] getBoundaryPoints(NumericColumn numericColumn) {
+        if(boundaryPoints == null) {
+            //The size limits are the same as the checks on the result of a candidate.
+            ThresholdSweep sweep = getSweep(numericColumn);
+            double maximumCovered = seed == null ? maximumFraction * data.getInstanceCount() : data.getInstanceCount();
+            boundaryPoints = new BoundaryPoints[]{sweep.findBoundaryPoints(0, minimumGroupSize, maximumCovered), sweep.findBoundaryPoints(sweep.getUnknown(), minimumGroupSize, maximumCovered)};
+        }
+        return boundaryPoints;
+    }
+
+    /**
+     * Count the instances of the refinement of the seed with an == condition, using the histogram of the instances of
+     * the seed.
+     *
+     * @param column The column of the attribute.
+     * @param code The code of the cutoff value.
+     * @return The counts of the refinement.
+     */
+    private ConfusionMatrix countCondition(AbstractColumn column, int code) {
+        if(codeCounts == null) {
+            if(levelCounts != null) {
+                codeCounts = levelCounts;
+            } else {
+                codeCounts = column.count(seed.getRows(), data.getPositives());
+                statistics.addScannedRows(seed.getRows().length);
+            }
+            countUnknown(column);
+        }
+        return ConfusionMatrix.of(data, codeCounts.getCovered(code), codeCounts.getCoveredPositive(code), unknown, unknownPositive);
+    }
+
+    /**
+     * Count the unknown instances of the refinements of the seed with an == condition, if not done before.
+     *
+     * @param column The column of the attribute.
+     */
+    private void countUnknown(AbstractColumn column) {
+        if(unknown == -1) {
+            //The unknown instances are those of the seed and the missing values, whatever the condition.
+            Extent missing = column.getMissingExtent();
+            unknown = seed == null ? missing.cardinality() : missing.orCardinality(seed.getUnknownExtent());
+            unknownPositive = seed == null ? missing.andCardinality(data.getPositives()) : missing.orAndCardinality(seed.getUnknownExtent(), data.getPositives());
+        }
+    }
+
+    /**
+     * Count the instances of a condition without a seed, with bitwise operations on the extents.
+     *
+     * @param column The column of the attribute.
+     * @param condition The extent of the condition.
+     * @return The counts of the condition.
+     */
+    private ConfusionMatrix countCondition(AbstractColumn column, Extent condition) {
+        Extent positives = data.getPositives();
+        Extent missing = column.getMissingExtent();
+        return ConfusionMatrix.of(data, condition.cardinality(), condition.andCardinality(positives), missing.cardinality(), missing.andCardinality(positives));
+    }
+}
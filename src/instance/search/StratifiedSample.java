@@ -0,0 +1,237 @@
+package instance.search;
+
+import instance.extent.Extent;
+import instance.object.ArffFile;
+import instance.result.ConfusionMatrix;
+
+import java.util.Random;
+
+/**
+ * A random sample of the instances of a data set, drawn without replacement from the positive and the negative
+ * instances separately, such that both classes are represented in proportion to their size. The fraction of the
+ * positive (negative) instances of a group that fall in the sample estimates the fraction of all positive (negative)
+ * instances the group covers, of which the error is bounded with Serfling's version of Hoeffding's inequality for
+ * sampling without replacement. The error probability is split over all candidates of a level with the union bound,
+ * such that the bounds of all candidates hold at the same time with the given confidence.
+ */
+class StratifiedSample {
+    //The sampled instances.
+    private final Extent extent;
+    private final int[] rows;
+
+    //The amount of sampled positive and negative instances, and the amount of positive and negative instances.
+    private final int positiveSize;
+    private final int negativeSize;
+    private final int positiveCount;
+    private final int negativeCount;
+
+    //The probability that the estimate of any of the candidates is off by more than the error bound, and the amount of
+    //candidates this probability is split over.
+    private final double delta;
+    private final long candidates;
+
+    //The largest error of the estimated fraction of positive and negative instances a group covers.
+    private final double positiveRadius;
+    private final double negativeRadius;
+
+    /**
+     * Draw a sample from the data set.
+     *
+     * @param data The data set.
+     * @param size The amount of instances to sample, which is divided over the classes in proportion to their size.
+     * @param delta The probability that the estimate of a single group is off by more than the error bound.
+     * @param seed The seed of the random number generator, such that the same sample is drawn on every run.
+     */
+    StratifiedSample(ArffFile data, int size, double delta, long seed) {
+        this.positiveCount = data.getPositiveCount();
+        this.negativeCount = data.getInstanceCount() - positiveCount;
+        this.delta = delta;
+        this.candidates = 1;
+
+        //Every class with instances is sampled at least once, such that the error bound is finite.
+        size = Math.min(size, data.getInstanceCount());
+        int positiveSize = (int) Math.round((double) size * positiveCount / data.getInstanceCount());
+        positiveSize = Math.min(positiveCount, Math.max(positiveCount > 0 ? 1 : 0, positiveSize));
+        this.positiveSize = positiveSize;
+        this.negativeSize = Math.min(negativeCount, Math.max(negativeCount > 0 ? 1 : 0, size - positiveSize));
+
+        //Draw from both classes with a partial shuffle of their instances.
+        Random random = new Random(seed);
+        long[] words = new long[(data.getInstanceCount() + 63) >>> 6];
+        int[] positives = data.getPositives().toArray();
+        int[] negatives = getNegatives(positives, data.getInstanceCount());
+        select(positives, positiveSize, random, words);
+        select(negatives, negativeSize, random, words);
+        this.extent = Extent.of(words, data.getInstanceCount());
+        this.rows = extent.toArray();
+
+        this.positiveRadius = getRadius(positiveSize, positiveCount, delta);
+        this.negativeRadius = getRadius(negativeSize, negativeCount, delta);
+    }
+
+    /**
+     * Create the same sample, of which the error bounds hold for the given amount of candidates at the same time.
+     *
+     * @param sample The sample.
+     * @param candidates The amount of candidates.
+     */
+    private StratifiedSample(StratifiedSample sample, long candidates) {
+        this.extent = sample.extent;
+        this.rows = sample.rows;
+        this.positiveSize = sample.positiveSize;
+        this.negativeSize = sample.negativeSize;
+        this.positiveCount = sample.positiveCount;
+        this.negativeCount = sample.negativeCount;
+        this.delta = sample.delta;
+        this.candidates = Math.max(1, candidates);
+        this.positiveRadius = getRadius(positiveSize, positiveCount, delta / this.candidates);
+        this.negativeRadius = getRadius(negativeSize, negativeCount, delta / this.candidates);
+    }
+
+    /**
+     * Get this sample with error bounds that hold for all candidates of a level at the same time, which are wider than
+     * the bounds of a single candidate.
+     *
+     * @param candidates The amount of candidates that may be evaluated on the sample.
+     * @return The sample with the wider error bounds.
+     */
+    StratifiedSample forCandidates(long candidates) {
+        return new StratifiedSample(this, candidates);
+    }
+
+    /**
+     * Get the probability that the estimate of any of the candidates is off by more than the error bound.
+     *
+     * @return The error probability.
+     */
+    double getErrorProbability() {
+        return delta;
+    }
+
+    /**
+     * Get the sampled instances.
+     *
+     * @return The extent of the sample.
+     */
+    Extent getExtent() {
+        return extent;
+    }
+
+    /**
+     * Get the sampled instances, in increasing order.
+     *
+     * @return The indices of the sampled instances.
+     */
+    int[] getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the amount of sampled instances.
+     *
+     * @return The size of the sample.
+     */
+    int size() {
+        return rows.length;
+    }
+
+    /**
+     * Get the largest error of the estimated fraction of the positive instances a group covers.
+     *
+     * @return The error bound.
+     */
+    double getPositiveRadius() {
+        return positiveRadius;
+    }
+
+    /**
+     * Get the largest error of the estimated fraction of the negative instances a group covers.
+     *
+     * @return The error bound.
+     */
+    double getNegativeRadius() {
+        return negativeRadius;
+    }
+
+    /**
+     * Estimate the counts of a group on the full data set from its counts on the sample.
+     * The unknown instances are counted on the full data set already, so they are kept as they are.
+     *
+     * @param covered The amount of covered sampled instances.
+     * @param coveredPositive The amount of covered sampled positive instances.
+     * @param unknown The amount of unknown instances in the data set.
+     * @param unknownPositive The amount of unknown positive instances in the data set.
+     * @return The estimated confusion matrix.
+     */
+    ConfusionMatrix estimate(int covered, int coveredPositive, int unknown, int unknownPositive) {
+        double p = positiveSize == 0 ? 0 : (double) coveredPositive * positiveCount / positiveSize;
+        double n = negativeSize == 0 ? 0 : (double) (covered - coveredPositive) * negativeCount / negativeSize;
+        return new ConfusionMatrix(p, positiveCount, n, negativeCount, unknownPositive, unknown - unknownPositive);
+    }
+
+    /**
+     * Set the bits of a random selection of the given instances.
+     *
+     * @param rows The instances to select from, which are shuffled in place.
+     * @param count The amount of instances to select.
+     * @param random The random number generator.
+     * @param words The bitmap to set the selected instances in.
+     */
+    private static void select(int[] rows, int count, Random random, long[] words) {
+        for(int i = 0; i < count; i++) {
+            int j = i + random.nextInt(rows.length - i);
+            int row = rows[j];
+            rows[j] = rows[i];
+            rows[i] = row;
+            words[row >>> 6] |= 1L << row;
+        }
+    }
+
+    /**
+     * Get the instances that are not positive.
+     *
+     * @param positives The positive instances, in increasing order.
+     * @param size The amount of instances in the data set.
+     * @return The negative instances, in increasing order.
+     */
+    private static int[] getNegatives(int[] positives, int size) {
+        int[] negatives = new int[size - positives.length];
+        int index = 0;
+        int next = 0;
+        for(int row = 0; row < size; row++) {
+            if(next < positives.length && positives[next] == row) {
+                next++;
+            } else {
+                negatives[index++] = row;
+            }
+        }
+        return negatives;
+    }
+
+    /**
+     * Get the error bound of a fraction estimated from a sample without replacement. The estimate is above or below
+     * the true fraction by more than the bound with a probability of at most delta / 4 each, such that the estimates
+     * of both classes are within their bounds with a probability of at least 1 - delta.
+     *
+     * @param sampleSize The amount of sampled instances of the class.
+     * @param populationSize The amount of instances of the class.
+     * @param delta The probability that the estimates of both classes are not within their bounds.
+     * @return The error bound, which is 0 if all instances are sampled and infinite if none are.
+     */
+    private static double getRadius(int sampleSize, int populationSize, double delta) {
+        if(sampleSize == populationSize) {
+            return 0;
+        } else if(sampleSize == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double correction = 1 - (sampleSize - 1.0) / populationSize;
+        return Math.sqrt(correction * Math.log(4 / delta) / (2.0 * sampleSize));
+    }
+
+    @Override
+    public String toString() {
+        return "Sampled " + rows.length + " instances (" + positiveSize + " of " + positiveCount + " positive, " + negativeSize + " of " + negativeCount
+                + " negative), estimating the covered fractions within " + String.format("%.4f", positiveRadius) + " (positive) and "
+                + String.format("%.4f", negativeRadius) + " (negative) for " + candidates + " candidates at once with a confidence of " + String.format("%.1f", 100 * (1 - delta)) + "%.";
+    }
+}
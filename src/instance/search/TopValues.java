@@ -0,0 +1,51 @@
+package instance.search;
+
+/**
+ * The largest distinct evaluation values seen so far, up to a fixed amount.
+ */
+class TopValues {
+    //The values in descending order, and the amount of values in use.
+    private final double[] values;
+    private int count;
+
+    /**
+     * Create an empty collection of values.
+     *
+     * @param size The maximum amount of values to keep.
+     */
+    TopValues(int size) {
+        this.values = new double[size];
+    }
+
+    /**
+     * Check whether the value is at least as large as the smallest kept value, or fewer values have been seen.
+     *
+     * @param value The value to check.
+     * @return False if the collection is full and all kept values are strictly larger than the value.
+     */
+    boolean admits(double value) {
+        return count < values.length || value >= values[count - 1];
+    }
+
+    /**
+     * Add the value, if it is one of the largest distinct values.
+     *
+     * @param value The value to add.
+     */
+    void add(double value) {
+        //Find the position of the value in the descending order.
+        int index = 0;
+        while(index < count && values[index] > value) {
+            index++;
+        }
+        if(index == values.length || index < count && values[index] == value) {
+            return;
+        }
+
+        //Shift the smaller values, dropping the smallest if the collection is full.
+        int end = Math.min(count, values.length - 1);
+        System.arraycopy(values, index, values, index + 1, end - index);
+        values[index] = value;
+        count = Math.min(count + 1, values.length);
+    }
+}
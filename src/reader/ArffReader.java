@@ -1,45 +1,164 @@
 package reader;
 
+import instance.column.AbstractColumn;
+import instance.column.ColumnBuilder;
 import instance.object.ArffFile;
-import instance.object.Instance;
 import instance.attribute.AbstractAttribute;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 /**
  * Helper for ARFF file loading.
  */
 public class ArffReader {
-    //The lines of the file.
-    private static final List<String> lines = new ArrayList<>();
-
     /**
-     * Read the given arff file, and convert it to an object.
+     * Read the given arff resource, and convert it to an object.
      *
-     * @param filePath The path to the file we want to load.
+     * @param filePath The path to the resource we want to load.
      * @return The arff file as an object.
      * @throws Exception Throws an exception if the file cannot be loaded.
      */
     public static ArffFile getArffFile(String filePath) throws Exception {
-        lines.clear();
-        lines.addAll(FileLoader.readAllLines(filePath));
+        try (InputStream in = FileLoader.openResource(filePath)) {
+            return getArffFile(in);
+        }
+    }
+
+    /**
+     * Read the given arff file from the file system, and convert it to an object.
+     *
+     * @param path The path to the file we want to load.
+     * @return The arff file as an object.
+     * @throws Exception Throws an exception if the file cannot be loaded.
+     */
+    public static ArffFile getArffFile(Path path) throws Exception {
+        try (InputStream in = Files.newInputStream(path)) {
+            return getArffFile(in);
+        }
+    }
+
+    /**
+     * Read the given arff file from the file system, tokenizing the data section on multiple threads.
+     *
+     * @param path The path to the file we want to load.
+     * @param threads The amount of threads to use.
+     * @return The arff file as an object, identical to the one {@link #getArffFile(Path)} would give.
+     * @throws Exception Throws an exception if the file cannot be loaded.
+     */
+    public static ArffFile getArffFile(Path path, int threads) throws Exception {
+        return MappedArffReader.getArffFile(path, threads);
+    }
+
+    /**
+     * Read an arff file from the given stream, and convert it to an object.
+     * The stream is parsed line by line in a single pass, and the values are dictionary encoded into columns directly.
+     * The stream is not closed by this method.
+     *
+     * @param in The stream containing the arff file.
+     * @return The arff file as an object.
+     * @throws Exception Throws an exception if the file cannot be loaded.
+     */
+    public static ArffFile getArffFile(InputStream in) throws Exception {
+        long start = System.nanoTime();
+        CountingInputStream counter = new CountingInputStream(in);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(counter));
 
         List<AbstractAttribute> attributes = new ArrayList<>();
-        String relation = "";
-        List<Instance> instances = new ArrayList<>();
-
-        int attributeCounter = 0;
-        for(String line : lines) {
-            if(line.startsWith("@attribute")) {
-                attributes.add(AbstractAttribute.getAttribute(line, attributeCounter++));
-            } else if(line.startsWith("@relation")) {
-                relation = line.replaceFirst("@relation ","").replaceAll("'","");
-            } else if(line.contains(",")) {
-                instances.add(new Instance(line, attributes.size() - 1));
+        String[] relation = {""};
+        List<ColumnBuilder> columns = new ArrayList<>();
+
+        String line;
+        while((line = reader.readLine()) != null) {
+            if(!parseHeaderLine(line, attributes, relation, columns) && line.contains(",")) {
+                addInstance(line.split(","), attributes, columns);
             }
         }
 
-        return new ArffFile(attributes, instances, relation, attributes.size() - 1);
+        ArffFile file = createArffFile(attributes, columns, relation[0]);
+        reportThroughput(counter.getCount(), System.nanoTime() - start, file.getInstanceCount());
+        return file;
+    }
+
+    /**
+     * Handle the line if it is part of the header.
+     *
+     * @param line The line to parse.
+     * @param attributes The list the attributes should be added to.
+     * @param relation Array of size one that will contain the name of the relation.
+     * @param columns The list of column builders, which should still be empty when attributes are added.
+     * @return True if the line has been handled as a header line, false otherwise.
+     * @throws Exception Throws an exception if the line is an invalid header line.
+     */
+    static boolean parseHeaderLine(String line, List<AbstractAttribute> attributes, String[] relation, List<ColumnBuilder> columns) throws Exception {
+        if(line.startsWith("@attribute")) {
+            if(!columns.isEmpty()) {
+                throw new Exception("Attributes have to be declared before the instances.");
+            }
+            attributes.add(AbstractAttribute.getAttribute(line, attributes.size()));
+            return true;
+        } else if(line.startsWith("@relation")) {
+            relation[0] = line.replaceFirst("@relation ","").replaceAll("'","");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Add the values of an instance to the column builders.
+     * Values missing at the end of the line are treated as empty values, like they are written in the file.
+     *
+     * @param values The values of the instance, in attribute order.
+     * @param attributes The list of attributes.
+     * @param columns The list of column builders, which is filled when the first instance is added.
+     */
+    static void addInstance(String[] values, List<AbstractAttribute> attributes, List<ColumnBuilder> columns) {
+        if(columns.isEmpty()) {
+            for(AbstractAttribute attribute : attributes) {
+                columns.add(new ColumnBuilder(attribute));
+            }
+        }
+        for(int i = 0; i < columns.size(); i++) {
+            columns.get(i).add(i < values.length ? values[i] : "");
+        }
+    }
+
+    /**
+     * Create the arff file from the parsed header and column builders.
+     *
+     * @param attributes The list of attributes.
+     * @param builders The list of column builders, which is empty if the file has no instances.
+     * @param relation The name of the relation.
+     * @return The arff file as an object.
+     */
+    static ArffFile createArffFile(List<AbstractAttribute> attributes, List<ColumnBuilder> builders, String relation) {
+        List<AbstractColumn> columns = new ArrayList<>();
+        for(AbstractAttribute attribute : attributes) {
+            ColumnBuilder builder = builders.isEmpty() ? new ColumnBuilder(attribute) : builders.get(attribute.getId());
+            columns.add(builder.build());
+        }
+        return new ArffFile(attributes, columns, relation, attributes.size() - 1);
+    }
+
+    /**
+     * Print the load throughput of the reader.
+     *
+     * @param bytes The amount of bytes that have been read.
+     * @param nanos The time it took to read and parse the bytes, in nanoseconds.
+     * @param instances The amount of instances that have been created.
+     */
+    static void reportThroughput(long bytes, long nanos, int instances) {
+        double megabytes = bytes / (1024.0 * 1024.0);
+        double seconds = Math.max(nanos, 1) / 1e9;
+        System.out.println("[" + new SimpleDateFormat("HH:mm:ss").format(new Date()) + "]: Loaded " + instances + " instances ("
+                + String.format("%.2f", megabytes) + " MB) in " + String.format("%.3f", seconds) + "s, "
+                + String.format("%.2f", megabytes / seconds) + " MB/s");
     }
 }
@@ -0,0 +1,617 @@
+package reader;
+
+import instance.attribute.AbstractAttribute;
+import instance.attribute.BooleanAttribute;
+import instance.attribute.NumericAttribute;
+import instance.attribute.RangeAttribute;
+import instance.attribute.SetAttribute;
+import instance.column.AbstractColumn;
+import instance.column.ChunkCache;
+import instance.column.CodeStore;
+import instance.column.ColumnBuilder;
+import instance.column.NumericColumn;
+import instance.column.OffHeapArena;
+import instance.extent.Extent;
+import instance.object.ArffFile;
+import instance.object.Type;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned binary snapshot of a parsed arff file, which can be memory mapped instead of parsing the source again.
+ *
+ * The snapshot starts with a metadata section, containing the source fingerprint, the attributes and the value dictionaries.
+ * The metadata is followed by an 8-byte aligned data section, which contains per attribute the dictionary codes of all
+ * instances and a bitmap of the instances with a missing value. The data section doubles as the store of the columns
+ * when the data set does not fit in memory, in which case the codes are read from the snapshot in chunks.
+ */
+public class ArffSnapshot {
+    //Magic bytes and version of the format. Increase the version whenever the layout changes.
+    private static final long MAGIC = 0x41524646534e4150L;
+    private static final int VERSION = 2;
+
+    //The file extension used for snapshots.
+    public static final String EXTENSION = ".snapshot";
+
+    //The size of the blocks in which the source is read to calculate its checksum.
+    private static final int CHECKSUM_BLOCK_SIZE = 1 << 20;
+
+    //The offset of the modification time of the source in the snapshot, after the magic bytes, version and size.
+    private static final long MODIFIED_OFFSET = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Load the given arff file, using the snapshot next to it whenever it is up to date.
+     * If the snapshot is missing or stale, the source is parsed and a new snapshot is written.
+     *
+     * @param source The path to the arff file.
+     * @return The arff file as an object.
+     * @throws Exception Throws an exception if the file cannot be loaded.
+     */
+    public static ArffFile load(Path source) throws Exception {
+        Path snapshot = source.resolveSibling(source.getFileName() + EXTENSION);
+        Fingerprint fingerprint = new Fingerprint(source);
+
+        if(Files.exists(snapshot)) {
+            ArffFile file = read(snapshot, fingerprint, null, null);
+            if(file != null) {
+                return file;
+            }
+            System.out.println("Snapshot " + snapshot + " is stale, parsing the source again.");
+        }
+
+        ArffFile file = ArffReader.getArffFile(source, Runtime.getRuntime().availableProcessors());
+        try {
+            write(file, snapshot, fingerprint);
+        } catch (Exception e) {
+            //The snapshot is an optimization only, so failing to write it should not fail the load.
+            System.out.println("Could not write snapshot " + snapshot + ": " + e);
+        }
+        return file;
+    }
+
+    /**
+     * Open the given arff file without holding the codes of the instances in memory, which are read from the snapshot
+     * next to it through the cache instead. If the snapshot is missing or stale, it is written while the source is
+     * parsed, spilling the codes to disk such that the instances are never held in memory at once. Only the
+     * dictionaries and the missing value bitmaps of the columns are held in memory.
+     *
+     * @param source The path to the arff file.
+     * @param cache The cache through which the codes are read, which has to stay open while the file is used.
+     * @return The arff file as an object.
+     * @throws Exception Throws an exception if the file cannot be loaded.
+     */
+    public static ArffFile open(Path source, ChunkCache cache) throws Exception {
+        Path snapshot = source.resolveSibling(source.getFileName() + EXTENSION);
+        Fingerprint fingerprint = new Fingerprint(source);
+
+        if(Files.exists(snapshot)) {
+            ArffFile file = read(snapshot, fingerprint, cache, null);
+            if(file != null) {
+                return file;
+            }
+            System.out.println("Snapshot " + snapshot + " is stale, parsing the source again.");
+        }
+
+        spill(source, snapshot, fingerprint);
+        return read(snapshot, fingerprint, cache, null);
+    }
+
+    /**
+     * Load the given arff file with the codes of the instances outside of the heap, copied from the snapshot next to
+     * it without going through the heap. If the snapshot is missing or stale, it is written first without holding
+     * the instances in memory, like {@link #open(Path, ChunkCache)} does.
+     *
+     * @param source The path to the arff file.
+     * @param arena The arena that holds the codes, which has to stay open while the file is used.
+     * @return The arff file as an object.
+     * @throws Exception Throws an exception if the file cannot be loaded.
+     */
+    public static ArffFile load(Path source, OffHeapArena arena) throws Exception {
+        Path snapshot = source.resolveSibling(source.getFileName() + EXTENSION);
+        Fingerprint fingerprint = new Fingerprint(source);
+
+        if(Files.exists(snapshot)) {
+            ArffFile file = read(snapshot, fingerprint, null, arena);
+            if(file != null) {
+                return file;
+            }
+            System.out.println("Snapshot " + snapshot + " is stale, parsing the source again.");
+        }
+
+        spill(source, snapshot, fingerprint);
+        return read(snapshot, fingerprint, null, arena);
+    }
+
+    /**
+     * Parse the arff file and write its snapshot, of which the codes are written to a temporary file per attribute
+     * while the source is parsed, and copied into the snapshot afterwards.
+     *
+     * @param source The path to the arff file.
+     * @param snapshot The path of the snapshot.
+     * @param fingerprint The fingerprint of the source.
+     * @throws Exception Throws an exception if the source cannot be parsed, or the snapshot cannot be written.
+     */
+    private static void spill(Path source, Path snapshot, Fingerprint fingerprint) throws Exception {
+        long start = System.nanoTime();
+        List<AbstractAttribute> attributes = new ArrayList<>();
+        String[] relation = {""};
+        List<ColumnBuilder> columns = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        List<DataOutputStream> spills = new ArrayList<>();
+        try {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(source)))) {
+                String line;
+                while((line = reader.readLine()) != null) {
+                    if(!ArffReader.parseHeaderLine(line, attributes, relation, columns) && line.contains(",")) {
+                        //The header has been read completely once the first instance is found.
+                        if(columns.isEmpty()) {
+                            createSpillBuilders(snapshot, attributes, columns, files, spills);
+                        }
+                        ArffReader.addInstance(line.split(","), attributes, columns);
+                    }
+                }
+            }
+            if(columns.isEmpty()) {
+                createSpillBuilders(snapshot, attributes, columns, files, spills);
+            }
+            for(DataOutputStream spill : spills) {
+                spill.close();
+            }
+
+            //The dictionaries are complete, so the snapshot can be written with the codes copied from the spill files.
+            int instanceCount = columns.get(0).size();
+            String[][] labels = new String[attributes.size()][];
+            double[][] labelValues = new double[attributes.size()][];
+            for(AbstractAttribute attribute : attributes) {
+                labels[attribute.getId()] = columns.get(attribute.getId()).getLabels();
+                if(attribute.getType() == Type.NUMERIC) {
+                    labelValues[attribute.getId()] = new double[labels[attribute.getId()].length];
+                    for(int code = 0; code < labels[attribute.getId()].length; code++) {
+                        labelValues[attribute.getId()][code] = Double.parseDouble(labels[attribute.getId()][code]);
+                    }
+                }
+            }
+
+            Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                writeMetadata(out, fingerprint, relation[0], attributes.size() - 1, instanceCount, attributes, labels, labelValues);
+                for(Path file : files) {
+                    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+                        long[] missing = new long[(instanceCount + 63) >>> 6];
+                        for(int i = 0; i < instanceCount; i++) {
+                            int code = in.readInt();
+                            if(code == -1) {
+                                missing[i >>> 6] |= 1L << i;
+                            }
+                            out.writeInt(code);
+                        }
+                        writeBitmap(out, missing, instanceCount);
+                    }
+                }
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            ArffReader.reportThroughput(Files.size(source), System.nanoTime() - start, instanceCount);
+        } finally {
+            for(DataOutputStream spill : spills) {
+                spill.close();
+            }
+            for(Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Create a builder for every attribute that writes its codes to a temporary file next to the snapshot.
+     *
+     * @param snapshot The path of the snapshot.
+     * @param attributes The list of attributes.
+     * @param columns The list the builders are added to.
+     * @param files The list the paths of the temporary files are added to.
+     * @param spills The list the streams to the temporary files are added to.
+     * @throws IOException Throws an exception if a temporary file cannot be created.
+     */
+    private static void createSpillBuilders(Path snapshot, List<AbstractAttribute> attributes, List<ColumnBuilder> columns, List<Path> files, List<DataOutputStream> spills) throws IOException {
+        Path directory = snapshot.toAbsolutePath().getParent();
+        for(AbstractAttribute attribute : attributes) {
+            Path file = Files.createTempFile(directory, snapshot.getFileName() + "." + attribute.getId() + ".", ".tmp");
+            files.add(file);
+            DataOutputStream spill = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+            spills.add(spill);
+            columns.add(new ColumnBuilder(attribute, spill));
+        }
+    }
+
+    /**
+     * Calculate the checksum of the source file.
+     * The checksum covers the size of the file and all of its contents, such that any change to the source makes the
+     * snapshot stale, even when the size of the source stays the same. It is only compared when the source has the
+     * same size as the snapshot, but a different modification time, as reading the source sequentially is cheaper
+     * than parsing it, but still not free.
+     *
+     * @param source The path to the source file.
+     * @return The checksum of the file.
+     * @throws IOException Throws an exception if the file cannot be read.
+     */
+    public static long checksum(Path source) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, size));
+
+            ByteBuffer block = ByteBuffer.allocateDirect(CHECKSUM_BLOCK_SIZE);
+            while(channel.read(block) > 0) {
+                block.flip();
+                crc.update(block);
+                block.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Write the arff file to a snapshot.
+     *
+     * @param file The arff file to store.
+     * @param snapshot The path of the snapshot.
+     * @param source The path of the source the file was parsed from.
+     * @throws IOException Throws an exception if the snapshot cannot be written.
+     */
+    public static void write(ArffFile file, Path snapshot, Path source) throws IOException {
+        write(file, snapshot, new Fingerprint(source));
+    }
+
+    /**
+     * Write the arff file to a snapshot.
+     *
+     * @param file The arff file to store.
+     * @param snapshot The path of the snapshot.
+     * @param fingerprint The fingerprint of the source the file was parsed from.
+     * @throws IOException Throws an exception if the snapshot cannot be written.
+     */
+    private static void write(ArffFile file, Path snapshot, Fingerprint fingerprint) throws IOException {
+        AbstractAttribute[] attributes = file.getAttributes();
+        int instanceCount = file.getInstanceCount();
+        int words = (instanceCount + 63) >>> 6;
+
+        //Write to a temporary file first, such that a crash never leaves a corrupt snapshot behind.
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        String[][] labels = new String[attributes.length][];
+        double[][] labelValues = new double[attributes.length][];
+        for(AbstractAttribute attribute : attributes) {
+            AbstractColumn column = file.getColumn(attribute);
+            labels[attribute.getId()] = new String[column.getLabelCount()];
+            for(int code = 0; code < column.getLabelCount(); code++) {
+                labels[attribute.getId()][code] = column.getLabel(code);
+            }
+            if(column instanceof NumericColumn) {
+                labelValues[attribute.getId()] = new double[column.getLabelCount()];
+                for(int code = 0; code < column.getLabelCount(); code++) {
+                    labelValues[attribute.getId()][code] = ((NumericColumn) column).getLabelValue(code);
+                }
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            writeMetadata(out, fingerprint, file.getRelation(), file.getTarget(), instanceCount, Arrays.asList(attributes), labels, labelValues);
+
+            //Write the codes and missing value bitmap, one attribute at a time.
+            for(AbstractAttribute attribute : attributes) {
+                AbstractColumn column = file.getColumn(attribute);
+                long[] missing = new long[words];
+                for(int i = 0; i < instanceCount; i++) {
+                    int code = column.getCode(i);
+                    if(code == -1) {
+                        missing[i >>> 6] |= 1L << i;
+                    }
+                    out.writeInt(code);
+                }
+                writeBitmap(out, missing, instanceCount);
+            }
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Write the metadata section of the snapshot, followed by the padding that aligns the data section.
+     *
+     * @param out The stream to write to.
+     * @param fingerprint The fingerprint of the source.
+     * @param relation The name of the relation.
+     * @param target The index of the target attribute.
+     * @param instanceCount The amount of instances.
+     * @param attributes The attributes, in order of their id.
+     * @param labels The dictionary of every attribute, of which the codes are assigned in order of first occurrence.
+     * @param labelValues The parsed value of every label of the numeric attributes, which is null for other attributes.
+     * @throws IOException Throws an exception if the metadata cannot be written.
+     */
+    private static void writeMetadata(DataOutputStream out, Fingerprint fingerprint, String relation, int target, int instanceCount, List<AbstractAttribute> attributes, String[][] labels, double[][] labelValues) throws IOException {
+        out.writeLong(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(fingerprint.size);
+        out.writeLong(fingerprint.modified);
+        out.writeLong(fingerprint.getChecksum());
+        writeString(out, relation);
+        out.writeInt(target);
+        out.writeInt(instanceCount);
+
+        //Write the dictionaries of all attributes.
+        out.writeInt(attributes.size());
+        for(AbstractAttribute attribute : attributes) {
+            out.writeByte(attribute.getType().ordinal());
+            writeString(out, attribute.getName());
+            writeString(out, getValueSet(attribute));
+            out.writeInt(labels[attribute.getId()].length);
+            for(String label : labels[attribute.getId()]) {
+                writeString(out, label);
+            }
+
+            //Numeric attributes also store the parsed value of each dictionary entry.
+            if(attribute.getType() == Type.NUMERIC) {
+                for(double value : labelValues[attribute.getId()]) {
+                    out.writeDouble(value);
+                }
+            }
+        }
+
+        //Align the data section, such that it can be viewed as a typed buffer.
+        while(out.size() % Long.BYTES != 0) {
+            out.writeByte(0);
+        }
+    }
+
+    /**
+     * Write the padding after the codes of an attribute, followed by its missing value bitmap.
+     *
+     * @param out The stream to write to.
+     * @param missing The bitmap of the instances with a missing value.
+     * @param instanceCount The amount of instances.
+     * @throws IOException Throws an exception if the bitmap cannot be written.
+     */
+    private static void writeBitmap(DataOutputStream out, long[] missing, int instanceCount) throws IOException {
+        if(instanceCount % 2 != 0) {
+            out.writeInt(0);
+        }
+        for(long word : missing) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Read the arff file stored in the given snapshot.
+     *
+     * @param snapshot The path of the snapshot.
+     * @param source The path of the source, which has to match the one the snapshot was written from.
+     * @return The arff file as an object, or null if the snapshot is stale or of an unsupported version.
+     * @throws Exception Throws an exception if the snapshot cannot be read.
+     */
+    public static ArffFile read(Path snapshot, Path source) throws Exception {
+        return read(snapshot, new Fingerprint(source), null, null);
+    }
+
+    /**
+     * Read the arff file stored in the given snapshot, of which the codes are either copied into the heap, copied
+     * outside of the heap, or read from the snapshot through the cache when they are needed.
+     *
+     * @param snapshot The path of the snapshot.
+     * @param fingerprint The fingerprint of the current source, which has to match the one in the snapshot.
+     * @param cache The cache through which the codes are read, or null if the codes should be held in memory.
+     * @param arena The arena holding the codes outside of the heap, or null if the codes should be held on the heap.
+     * @return The arff file as an object, or null if the snapshot is stale or of an unsupported version.
+     * @throws Exception Throws an exception if the snapshot cannot be read.
+     */
+    private static ArffFile read(Path snapshot, Fingerprint fingerprint, ChunkCache cache, OffHeapArena arena) throws Exception {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+            DataInputStream in = new DataInputStream(counter);
+
+            if(in.readLong() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            long size = in.readLong();
+            long modified = in.readLong();
+            long checksum = in.readLong();
+            if(size != fingerprint.size || (modified != fingerprint.modified && checksum != fingerprint.getChecksum())) {
+                return null;
+            }
+            if(modified != fingerprint.modified) {
+                //Only the modification time of the source changed, so store the new one to skip the checksum next time.
+                updateModified(snapshot, fingerprint.modified);
+            }
+            String relation = readString(in);
+            int target = in.readInt();
+            int instanceCount = in.readInt();
+
+            int attributeCount = in.readInt();
+            List<AbstractAttribute> attributes = new ArrayList<>(attributeCount);
+            String[][] dictionaries = new String[attributeCount][];
+            double[][] dictionaryValues = new double[attributeCount][];
+            for(int id = 0; id < attributeCount; id++) {
+                Type type = Type.values()[in.readByte()];
+                String name = readString(in);
+                attributes.add(createAttribute(type, name, id, readString(in)));
+
+                dictionaries[id] = new String[in.readInt()];
+                for(int i = 0; i < dictionaries[id].length; i++) {
+                    dictionaries[id][i] = readString(in);
+                }
+                if(type == Type.NUMERIC) {
+                    dictionaryValues[id] = new double[dictionaries[id].length];
+                    for(int i = 0; i < dictionaryValues[id].length; i++) {
+                        dictionaryValues[id][i] = in.readDouble();
+                    }
+                }
+            }
+
+            //Map the data section of every attribute, and copy the codes into the column.
+            List<AbstractColumn> columns = new ArrayList<>(attributeCount);
+            long codesBytes = ((instanceCount + 1L) & ~1L) * Integer.BYTES;
+            int bitmapWords = (instanceCount + 63) >>> 6;
+            long bitmapBytes = (long) bitmapWords * Long.BYTES;
+            long position = (counter.getCount() + Long.BYTES - 1) & ~(Long.BYTES - 1L);
+            ChunkCache.Source source = cache == null ? null : cache.open(snapshot);
+            for(int id = 0; id < attributeCount; id++) {
+                AbstractAttribute attribute = attributes.get(id);
+                IntBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, codesBytes).asIntBuffer();
+                buffer.limit(instanceCount);
+                if(source == null && (arena == null || attribute.getType() == Type.BOOLEAN)) {
+                    //Boolean columns convert the codes to a bitmap, so there is no point in storing them outside of the heap.
+                    int[] codes = new int[instanceCount];
+                    buffer.get(codes);
+                    columns.add(AbstractColumn.create(attribute, dictionaries[id], codes, dictionaryValues[id]));
+                } else {
+                    //Only the bitmap is read into the heap, the codes stay on disk or are copied outside of the heap.
+                    long[] missing = new long[bitmapWords];
+                    channel.map(FileChannel.MapMode.READ_ONLY, position + codesBytes, bitmapBytes).asLongBuffer().get(missing);
+                    CodeStore codes = source != null ? cache.createStore(source, position, instanceCount) : arena.createStore(buffer);
+                    Extent missingExtent = source != null ? Extent.of(missing, instanceCount) : arena.createExtent(missing, instanceCount);
+                    columns.add(AbstractColumn.create(attribute, dictionaries[id], codes, missingExtent, dictionaryValues[id]));
+                }
+                position += codesBytes + bitmapBytes;
+            }
+
+            ArffFile file = new ArffFile(attributes, columns, relation, target);
+            ArffReader.reportThroughput(channel.size(), System.nanoTime() - start, instanceCount);
+            return file;
+        }
+    }
+
+    /**
+     * Store the modification time of the source in the snapshot, after its contents turned out to be unchanged.
+     * The snapshot stays valid if this fails, the checksum of the source is then compared again on the next load.
+     *
+     * @param snapshot The path of the snapshot.
+     * @param modified The modification time of the source.
+     */
+    private static void updateModified(Path snapshot, long modified) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, modified), MODIFIED_OFFSET);
+        } catch (IOException e) {
+            System.out.println("Could not update snapshot " + snapshot + ": " + e);
+        }
+    }
+
+    /**
+     * Write a string as its length followed by its UTF-8 bytes, which unlike writeUTF has no length limit.
+     *
+     * @param out The stream to write to.
+     * @param value The string to write.
+     * @throws IOException Throws an exception if the string cannot be written.
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a string written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param in The stream to read from.
+     * @return The string.
+     * @throws IOException Throws an exception if the string cannot be read.
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the value set of the attribute, as it was declared in the header.
+     *
+     * @param attribute The attribute.
+     * @return The comma separated list of values, or an empty string if the attribute has no value set.
+     */
+    private static String getValueSet(AbstractAttribute attribute) {
+        if(attribute instanceof SetAttribute) {
+            return String.join(",", ((SetAttribute) attribute).getValues());
+        } else if(attribute instanceof RangeAttribute) {
+            Object[] ranges = ((RangeAttribute) attribute).getValues();
+            return Arrays.stream(ranges).map(Object::toString).collect(Collectors.joining(","));
+        }
+        return "";
+    }
+
+    /**
+     * Create the attribute without having to parse the attribute line again.
+     *
+     * @param type The type of the attribute.
+     * @param name The name of the attribute.
+     * @param id The id of the attribute.
+     * @param valueSet The value set of the attribute.
+     * @return The attribute.
+     */
+    private static AbstractAttribute createAttribute(Type type, String name, int id, String valueSet) {
+        switch (type) {
+            case BOOLEAN:
+                return new BooleanAttribute(name, id);
+            case NUMERIC:
+                return new NumericAttribute(name, id);
+            case RANGE:
+                return new RangeAttribute(name, id, valueSet);
+            default:
+                return new SetAttribute(name, id, valueSet);
+        }
+    }
+
+    /**
+     * The size, modification time and checksum of a source file, which identify the contents the snapshot was written
+     * from. The checksum is only calculated when it is needed, as it reads the whole source.
+     */
+    private static class Fingerprint {
+        //The source file, with its size and its modification time in milliseconds.
+        private final Path source;
+        private final long size;
+        private final long modified;
+
+        //The checksum of the source, which is -1 until it has been calculated.
+        private long checksum = -1;
+
+        /**
+         * Create the fingerprint of the source in its current state.
+         *
+         * @param source The path of the source file.
+         * @throws IOException Throws an exception if the attributes of the file cannot be read.
+         */
+        private Fingerprint(Path source) throws IOException {
+            this.source = source;
+            this.size = Files.size(source);
+            this.modified = Files.getLastModifiedTime(source).toMillis();
+        }
+
+        /**
+         * Get the checksum of the source, which is calculated on first use.
+         *
+         * @return The checksum of the source.
+         * @throws IOException Throws an exception if the file cannot be read.
+         */
+        private long getChecksum() throws IOException {
+            if(checksum == -1) {
+                checksum = checksum(source);
+            }
+            return checksum;
+        }
+    }
+}
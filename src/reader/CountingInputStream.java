@@ -0,0 +1,56 @@
+package reader;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream wrapper that keeps track of the amount of bytes that have been read.
+ */
+public class CountingInputStream extends FilterInputStream {
+    //The amount of bytes read so far.
+    private long count;
+
+    /**
+     * Wrap the given stream.
+     *
+     * @param in The stream to count the bytes of.
+     */
+    public CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    /**
+     * Get the amount of bytes that have been read through this stream.
+     *
+     * @return The amount of bytes read.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int result = super.read();
+        if(result != -1) {
+            count++;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int result = super.read(b, off, len);
+        if(result > 0) {
+            count += result;
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long result = super.skip(n);
+        count += result;
+        return result;
+    }
+}
@@ -21,7 +21,7 @@ public class FileLoader {
      */
     public static String loadResource(String fileName) throws IOException {
         String result;
-        try (InputStream in = FileLoader.class.getClass().getResourceAsStream(fileName)) {
+        try (InputStream in = openResource(fileName)) {
             Scanner scanner = new Scanner(in, "UTF-8");
             result = scanner.useDelimiter("\\A").next();
             scanner.close();
@@ -29,6 +29,21 @@ public class FileLoader {
         return result;
     }
 
+    /**
+     * Open the given resource as a stream.
+     *
+     * @param fileName Name and path to the file.
+     * @return A stream containing the contents of the resource.
+     * @throws IOException When the resource cannot be found.
+     */
+    public static InputStream openResource(String fileName) throws IOException {
+        InputStream in = FileLoader.class.getResourceAsStream(fileName);
+        if(in == null) {
+            throw new IOException("Resource " + fileName + " could not be found.");
+        }
+        return in;
+    }
+
     /**
      * Loads the lines in a file into a list of strings.
      *
@@ -39,7 +54,7 @@ public class FileLoader {
     public static List<String> readAllLines(String fileName) throws IOException {
         List<String> list = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(FileLoader.class.getClass().getResourceAsStream(fileName)))) {
+                new InputStreamReader(openResource(fileName)))) {
             String line;
             while ((line = br.readLine()) != null) {
                 list.add(line);
@@ -0,0 +1,325 @@
+package reader;
+
+import instance.attribute.AbstractAttribute;
+import instance.column.ColumnBuilder;
+import instance.object.ArffFile;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ARFF reader that memory maps the data section of a file, and tokenizes newline aligned chunks of it in parallel.
+ * Every chunk is encoded into its own column builders, which are appended in file order afterwards. As dictionary
+ * codes are assigned in order of first occurrence, the result is identical to the one of the sequential {@link ArffReader}.
+ */
+public class MappedArffReader {
+    //The bounds on the size of a single chunk, in bytes. A mapping cannot be larger than 2GB.
+    private static final long MINIMUM_CHUNK_SIZE = 1 << 20;
+    private static final long MAXIMUM_CHUNK_SIZE = 1 << 29;
+
+    //The amount of chunks we want to give each thread, to even out differences in line lengths.
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    //The charset used by the sequential reader, which we have to match.
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    /**
+     * Read the given arff file, tokenizing the data section on the given amount of threads.
+     *
+     * @param path The path to the file we want to load.
+     * @param threads The amount of threads to use.
+     * @return The arff file as an object.
+     * @throws Exception Throws an exception if the file cannot be loaded.
+     */
+    public static ArffFile getArffFile(Path path, int threads) throws Exception {
+        long start = System.nanoTime();
+
+        List<AbstractAttribute> attributes = new ArrayList<>();
+        String[] relation = {""};
+        List<ColumnBuilder> columns = new ArrayList<>();
+
+        //Parse the header sequentially, up to and including the @data line.
+        long dataStart = readHeader(path, attributes, relation, columns);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = getChunkBounds(channel, dataStart, size, threads);
+
+            //Tokenize all chunks, and append the results in file order.
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+            try {
+                List<Future<List<ColumnBuilder>>> chunks = new ArrayList<>();
+                for(int i = 0; i < bounds.length - 1; i++) {
+                    long from = bounds[i];
+                    long to = bounds[i + 1];
+                    chunks.add(executor.submit(() -> tokenize(channel, from, to, attributes)));
+                }
+                for(Future<List<ColumnBuilder>> chunk : chunks) {
+                    List<ColumnBuilder> chunkColumns = chunk.get();
+                    if(chunkColumns.isEmpty()) {
+                        continue;
+                    }
+                    if(columns.isEmpty()) {
+                        columns.addAll(chunkColumns);
+                    } else {
+                        for(int i = 0; i < columns.size(); i++) {
+                            columns.get(i).addAll(chunkColumns.get(i));
+                        }
+                    }
+                }
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof UnsupportedLineException) {
+                    //The data section contains header lines, which only the sequential reader handles correctly.
+                    return ArffReader.getArffFile(path);
+                }
+                throw e;
+            } finally {
+                executor.shutdownNow();
+            }
+
+            ArffFile file = ArffReader.createArffFile(attributes, columns, relation[0]);
+            ArffReader.reportThroughput(size, System.nanoTime() - start, file.getInstanceCount());
+            return file;
+        }
+    }
+
+    /**
+     * Read the header of the file, up to and including the @data line.
+     *
+     * @param path The path to the file.
+     * @param attributes The list the attributes should be added to.
+     * @param relation Array of size one that will contain the name of the relation.
+     * @param columns The column builders instances found before the @data line should be added to.
+     * @return The offset of the first byte after the @data line, or the file size if there is no such line.
+     * @throws Exception Throws an exception if the header cannot be read.
+     */
+    private static long readHeader(Path path, List<AbstractAttribute> attributes, String[] relation, List<ColumnBuilder> columns) throws Exception {
+        long offset = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int c;
+            boolean pendingCarriageReturn = false;
+            while((c = in.read()) != -1) {
+                offset++;
+
+                //A \r\n pair terminates a single line.
+                if(pendingCarriageReturn) {
+                    pendingCarriageReturn = false;
+                    if(c == '\n') {
+                        continue;
+                    }
+                }
+
+                if(c != '\n' && c != '\r') {
+                    buffer.write(c);
+                    continue;
+                }
+                pendingCarriageReturn = c == '\r';
+
+                //Handle the line exactly like the sequential reader does.
+                String line = new String(buffer.toByteArray(), CHARSET);
+                buffer.reset();
+                if(ArffReader.parseHeaderLine(line, attributes, relation, columns)) {
+                    continue;
+                } else if(line.contains(",")) {
+                    ArffReader.addInstance(line.split(","), attributes, columns);
+                } else if(line.trim().toLowerCase().startsWith("@data")) {
+                    //Skip the \n of a \r\n pair, so that the data section starts on a fresh line.
+                    if(pendingCarriageReturn && in.read() == '\n') {
+                        offset++;
+                    }
+                    return offset;
+                }
+            }
+
+            //The last line is not terminated, but should still be handled.
+            if(buffer.size() > 0) {
+                String line = new String(buffer.toByteArray(), CHARSET);
+                if(!ArffReader.parseHeaderLine(line, attributes, relation, columns) && line.contains(",")) {
+                    ArffReader.addInstance(line.split(","), attributes, columns);
+                }
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Split the data section into chunks that all start at the beginning of a line.
+     *
+     * @param channel The channel of the file.
+     * @param from The start of the data section.
+     * @param to The end of the data section.
+     * @param threads The amount of threads that will process the chunks.
+     * @return The chunk bounds, where chunk i spans the bytes [bounds[i], bounds[i + 1]).
+     * @throws IOException Throws an exception if the file cannot be read.
+     */
+    private static long[] getChunkBounds(FileChannel channel, long from, long to, int threads) throws IOException {
+        long length = to - from;
+        long chunkSize = Math.min(MAXIMUM_CHUNK_SIZE, Math.max(MINIMUM_CHUNK_SIZE, length / (Math.max(1, threads) * CHUNKS_PER_THREAD)));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(from);
+        long position = from;
+        while(to - position > chunkSize) {
+            position = findLineStart(channel, position + chunkSize, to);
+            if(position >= to) {
+                break;
+            }
+            bounds.add(position);
+        }
+        bounds.add(to);
+
+        long[] result = new long[bounds.size()];
+        for(int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Find the start of the first line that starts at or after the given position.
+     *
+     * @param channel The channel of the file.
+     * @param position The position to start looking from.
+     * @param to The end of the data section.
+     * @return The offset directly after the first \n found at or after {@code position - 1}, or {@code to} if there is none.
+     * @throws IOException Throws an exception if the file cannot be read.
+     */
+    private static long findLineStart(FileChannel channel, long position, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        position--;
+        while(position < to) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if(read <= 0) {
+                break;
+            }
+            for(int i = 0; i < read; i++) {
+                if(buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return to;
+    }
+
+    /**
+     * Tokenize the lines within the given chunk.
+     *
+     * @param channel The channel of the file.
+     * @param from The start of the chunk.
+     * @param to The end of the chunk.
+     * @param attributes The list of attributes.
+     * @return The column builders holding the instances within the chunk, which is empty if the chunk has no instances.
+     * @throws IOException Throws an exception if the chunk cannot be mapped.
+     */
+    private static List<ColumnBuilder> tokenize(FileChannel channel, long from, long to, List<AbstractAttribute> attributes) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        List<ColumnBuilder> columns = new ArrayList<>();
+        String[] tokens = new String[attributes.size()];
+
+        byte[] line = new byte[256];
+        int length = 0;
+        int limit = buffer.limit();
+        for(int i = 0; i <= limit; i++) {
+            byte c = i < limit ? buffer.get(i) : (byte) '\n';
+            if(c != '\n' && c != '\r') {
+                if(length == line.length) {
+                    byte[] grown = new byte[line.length * 2];
+                    System.arraycopy(line, 0, grown, 0, length);
+                    line = grown;
+                }
+                line[length++] = c;
+                continue;
+            }
+
+            //Empty lines, such as the one between \r and \n, are skipped like any other line without commas.
+            if(length > 0 && tokenizeLine(line, length, tokens)) {
+                ArffReader.addInstance(tokens, attributes, columns);
+            }
+            length = 0;
+        }
+        return columns;
+    }
+
+    /**
+     * Split a single line into the values of an instance.
+     * Values missing at the end of the line are set to empty values, like the sequential reader does.
+     *
+     * @param line The bytes of the line.
+     * @param length The length of the line.
+     * @param tokens The array the values should be written to, which has an entry for every attribute.
+     * @return True if the line is an instance, false otherwise.
+     */
+    private static boolean tokenizeLine(byte[] line, int length, String[] tokens) {
+        if(line[0] == '@' && (startsWith(line, length, "@attribute") || startsWith(line, length, "@relation"))) {
+            throw new UnsupportedLineException();
+        }
+
+        int count = 0;
+        int tokenStart = 0;
+        for(int i = 0; i < length && count < tokens.length; i++) {
+            if(line[i] == ',') {
+                tokens[count++] = new String(line, tokenStart, i - tokenStart, CHARSET);
+                tokenStart = i + 1;
+            }
+        }
+
+        //Lines without commas are not instances.
+        if(tokenStart == 0) {
+            return false;
+        }
+
+        //The remainder of the line is the last value, unless all attributes already have a value.
+        if(count < tokens.length) {
+            tokens[count++] = new String(line, tokenStart, length - tokenStart, CHARSET);
+        }
+        while(count < tokens.length) {
+            tokens[count++] = "";
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the line starts with the given prefix.
+     *
+     * @param line The bytes of the line.
+     * @param length The length of the line.
+     * @param prefix The prefix to look for, which should only contain ASCII characters.
+     * @return True if the line starts with the prefix, false otherwise.
+     */
+    private static boolean startsWith(byte[] line, int length, String prefix) {
+        if(length < prefix.length()) {
+            return false;
+        }
+        for(int i = 0; i < prefix.length(); i++) {
+            if(line[i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Signals that the data section contains lines that modify the header.
+     */
+    private static class UnsupportedLineException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+}